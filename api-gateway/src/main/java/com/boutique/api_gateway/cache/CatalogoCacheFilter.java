@@ -0,0 +1,162 @@
+package com.boutique.api_gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Caché de respuestas del catálogo público en el Gateway.
+ *
+ * Las peticiones GET anónimas a /api/catalogo/** se responden desde memoria
+ * mientras no venza el TTL, con ETag para que el navegador pueda revalidar y
+ * recibir 304 sin cuerpo. La clave es la ruta más los parámetros ordenados, así
+ * "?page=0&size=10" y "?size=10&page=0" comparten la entrada. Cualquier
+ * escritura exitosa sobre /api/productos/** vacía la caché.
+ * @author GERSON
+ */
+
+@Component
+public class CatalogoCacheFilter implements GlobalFilter, Ordered {
+    private static final PathPattern RUTA_CATALOGO =
+            PathPatternParser.defaultInstance.parse("/api/catalogo/**");
+    private static final PathPattern RUTA_PRODUCTOS =
+            PathPatternParser.defaultInstance.parse("/api/productos/**");
+
+    private final Cache<String, RespuestaCacheada> respuestas;
+
+    public CatalogoCacheFilter(
+            @Value("${cache-catalogo.ttl:PT30S}") Duration ttl,
+            @Value("${cache-catalogo.max-bytes:33554432}") long maxBytes
+    ) {
+        this.respuestas = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String clave, RespuestaCacheada respuesta) -> respuesta.cuerpo().length)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        HttpMethod metodo = request.getMethod();
+
+        if (RUTA_PRODUCTOS.matches(request.getPath().pathWithinApplication())
+                && metodo != HttpMethod.GET && metodo != HttpMethod.HEAD) {
+            return chain.filter(exchange).then(Mono.fromRunnable(() -> {
+                HttpStatus estado = HttpStatus.resolve(exchange.getResponse().getStatusCode().value());
+                if (estado != null && estado.is2xxSuccessful())
+                    this.respuestas.invalidateAll();
+            }));
+        }
+
+        if (metodo != HttpMethod.GET
+                || request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)
+                || !RUTA_CATALOGO.matches(request.getPath().pathWithinApplication())) {
+            return chain.filter(exchange);
+        }
+
+        String clave = clave(request);
+        RespuestaCacheada guardada = this.respuestas.getIfPresent(clave);
+        if (guardada != null)
+            return responder(exchange, guardada, "HIT");
+
+        ServerHttpResponse original = exchange.getResponse();
+        ServerHttpResponseDecorator capturada = new ServerHttpResponseDecorator(original) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                if (getStatusCode() == null || getStatusCode().value() != HttpStatus.OK.value())
+                    return super.writeWith(body);
+
+                return DataBufferUtils.join(body).flatMap(buffer -> {
+                    byte[] cuerpo = new byte[buffer.readableByteCount()];
+                    buffer.read(cuerpo);
+                    DataBufferUtils.release(buffer);
+
+                    RespuestaCacheada respuesta = new RespuestaCacheada(
+                            cuerpo, getHeaders().getContentType(), etag(cuerpo)
+                    );
+                    respuestas.put(clave, respuesta);
+                    return escribir(exchange, getDelegate(), respuesta, "MISS");
+                });
+            }
+        };
+        return chain.filter(exchange.mutate().response(capturada).build());
+    }
+
+    private Mono<Void> responder(ServerWebExchange exchange, RespuestaCacheada respuesta, String resultado) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(respuesta.tipoContenido());
+        return escribir(exchange, response, respuesta, resultado);
+    }
+
+    /**
+     * Escribe la respuesta guardada, o 304 sin cuerpo si el cliente ya tiene esa versión.
+     */
+    private static Mono<Void> escribir(
+            ServerWebExchange exchange, ServerHttpResponse response,
+            RespuestaCacheada respuesta, String resultado
+    ) {
+        HttpHeaders headers = response.getHeaders();
+        headers.setETag(respuesta.etag());
+        headers.set("X-Cache", resultado);
+
+        List<String> ifNoneMatch = exchange.getRequest().getHeaders().getIfNoneMatch();
+        if (ifNoneMatch.contains(respuesta.etag()) || ifNoneMatch.contains("*")) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+
+        headers.setContentLength(respuesta.cuerpo().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(respuesta.cuerpo())));
+    }
+
+    private static String clave(ServerHttpRequest request) {
+        MultiValueMap<String, String> parametros = request.getQueryParams();
+        if (parametros.isEmpty())
+            return request.getPath().value();
+        return request.getPath().value() + '?' + new TreeMap<>(parametros);
+    }
+
+    private static String etag(byte[] cuerpo) {
+        return "\"" + DigestUtils.md5DigestAsHex(cuerpo) + "\"";
+    }
+
+    /**
+     * Debe envolver la respuesta antes de que NettyWriteResponseFilter escriba el
+     * cuerpo del backend.
+     */
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    private record RespuestaCacheada(byte[] cuerpo, MediaType tipoContenido, String etag) {
+    }
+}
@@ -0,0 +1,203 @@
+package com.boutique.api_gateway.limite;
+
+import com.boutique.api_gateway.security.JwtUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Límite de peticiones por cliente en el Gateway (token bucket).
+ *
+ * Cada cliente se identifica por el "sub" de su JWT o, si no envía uno válido,
+ * por su IP. El cubo se guarda como un único instante: la hora teórica en que
+ * quedaría lleno otra vez (GCRA). Aceptar una petición es adelantar ese instante
+ * un intervalo con compareAndSet, sin locks ni hilos de reposición. Las
+ * peticiones rechazadas reciben 429 con Retry-After sin llegar al backend.
+ * @author GERSON
+ */
+
+@Component
+@EnableConfigurationProperties(LimiteTasaProperties.class)
+public class LimiteTasaFilter implements GlobalFilter, Ordered {
+    private static final int MAX_CLIENTES = 100_000;
+    private static final byte[] CUERPO_429 = String.format(
+            "{\"status\": %d, \"error\": \"%s\"}",
+            HttpStatus.TOO_MANY_REQUESTS.value(), "Demasiadas solicitudes, intente más tarde"
+    ).getBytes(StandardCharsets.UTF_8);
+
+    private final JwtUtils jwtUtils;
+    // Reloj monotónico en nanos; las pruebas lo reemplazan para avanzar el tiempo
+    private final LongSupplier reloj;
+    private final ReglaCompilada[] reglas;
+    // Clave: índice de la regla + cliente; valor: instante teórico en nanos
+    private final Cache<String, AtomicLong> cubos;
+
+    @Autowired
+    public LimiteTasaFilter(
+            LimiteTasaProperties propiedades, JwtUtils jwtUtils, MeterRegistry registry
+    ) {
+        this(propiedades, jwtUtils, registry, System::nanoTime);
+    }
+
+    LimiteTasaFilter(
+            LimiteTasaProperties propiedades, JwtUtils jwtUtils, MeterRegistry registry,
+            LongSupplier reloj
+    ) {
+        this.jwtUtils = jwtUtils;
+        this.reloj = reloj;
+        List<LimiteTasaProperties.Regla> configuradas = propiedades.reglas();
+        this.reglas = new ReglaCompilada[configuradas.size()];
+        Duration mayorPeriodo = Duration.ofMinutes(1);
+        for (int i = 0; i < this.reglas.length; i++) {
+            LimiteTasaProperties.Regla regla = configuradas.get(i);
+            this.reglas[i] = ReglaCompilada.de(i, regla, registry);
+            if (regla.periodo().compareTo(mayorPeriodo) > 0)
+                mayorPeriodo = regla.periodo();
+        }
+        // Un cubo sin uso durante un periodo completo ya está lleno; se puede descartar
+        this.cubos = Caffeine.newBuilder()
+                .maximumSize(MAX_CLIENTES)
+                .expireAfterAccess(mayorPeriodo)
+                .build();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ReglaCompilada regla = buscarRegla(exchange.getRequest().getPath().pathWithinApplication());
+        if (regla == null)
+            return chain.filter(exchange);
+
+        AtomicLong cubo = this.cubos.get(regla.prefijo() + cliente(exchange.getRequest()), k -> new AtomicLong());
+        long espera = regla.consumir(cubo, this.reloj.getAsLong());
+        if (espera == 0) {
+            regla.permitidas().increment();
+            return chain.filter(exchange);
+        }
+
+        regla.rechazadas().increment();
+        return rechazar(exchange, espera);
+    }
+
+    private ReglaCompilada buscarRegla(PathContainer ruta) {
+        for (ReglaCompilada regla : this.reglas) {
+            if (regla.patron().matches(ruta))
+                return regla;
+        }
+        return null;
+    }
+
+    /**
+     * Sujeto del JWT si la petición trae uno válido (verificación cacheada en
+     * JwtUtils); si no, la IP de la conexión.
+     */
+    private String cliente(ServerHttpRequest request) {
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            try {
+                String sujeto = this.jwtUtils.parseClaims(authHeader.substring(7)).getSubject();
+                if (sujeto != null)
+                    return "u:" + sujeto;
+            } catch (JwtException | IllegalArgumentException e) {
+                // Token inválido: se limita por IP y el AuthenticationFilter lo rechazará
+            }
+        }
+        InetSocketAddress remoto = request.getRemoteAddress();
+        return remoto != null && remoto.getAddress() != null
+                ? "ip:" + remoto.getAddress().getHostAddress()
+                : "ip:desconocida";
+    }
+
+    private static Mono<Void> rechazar(ServerWebExchange exchange, long esperaNanos) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        HttpHeaders headers = response.getHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER,
+                Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(esperaNanos + 999_999_999L))));
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setContentLength(CUERPO_429.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(CUERPO_429)));
+    }
+
+    /**
+     * Antes de la caché del catálogo y de la validación del token, para que
+     * las peticiones rechazadas no hagan ningún otro trabajo.
+     */
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+    }
+
+    /**
+     * @param intervalo Nanos que repone una solicitud.
+     * @param tolerancia Nanos de adelanto permitidos: intervalo × ráfaga.
+     */
+    private record ReglaCompilada(
+            String prefijo, PathPattern patron, long intervalo, long tolerancia,
+            Counter permitidas, Counter rechazadas
+    ) {
+        static ReglaCompilada de(int indice, LimiteTasaProperties.Regla regla, MeterRegistry registry) {
+            long intervalo = Math.max(1, regla.periodo().toNanos() / regla.solicitudes());
+            return new ReglaCompilada(
+                    indice + "|",
+                    PathPatternParser.defaultInstance.parse(regla.ruta()),
+                    intervalo,
+                    intervalo * regla.rafaga(),
+                    contador(registry, regla.ruta(), "permitida"),
+                    contador(registry, regla.ruta(), "rechazada")
+            );
+        }
+
+        private static Counter contador(MeterRegistry registry, String ruta, String resultado) {
+            return Counter.builder("gateway.limite.tasa")
+                    .description("Peticiones evaluadas por el límite de tasa del Gateway")
+                    .tag("ruta", ruta)
+                    .tag("resultado", resultado)
+                    .register(registry);
+        }
+
+        /**
+         * Toma una solicitud del cubo.
+         * @return 0 si se aceptó; si no, los nanos que faltan para que haya una.
+         */
+        long consumir(AtomicLong cubo, long ahora) {
+            while (true) {
+                long actual = cubo.get();
+                // Un cubo nuevo (0) o ya lleno parte desde ahora
+                long base = actual == 0 || actual - ahora < 0 ? ahora : actual;
+                long siguiente = base + this.intervalo;
+                long exceso = siguiente - ahora - this.tolerancia;
+                if (exceso > 0)
+                    return exceso;
+                if (cubo.compareAndSet(actual, siguiente))
+                    return 0;
+            }
+        }
+    }
+}
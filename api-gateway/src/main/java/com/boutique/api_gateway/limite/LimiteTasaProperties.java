@@ -0,0 +1,37 @@
+package com.boutique.api_gateway.limite;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Límites de peticiones por cliente, por ruta (limite-tasa.reglas). Se aplica
+ * la primera regla cuya ruta coincida, así que las más específicas van primero.
+ * @author GERSON
+ */
+
+@ConfigurationProperties(prefix = "limite-tasa")
+public record LimiteTasaProperties(List<Regla> reglas) {
+    public LimiteTasaProperties {
+        reglas = reglas != null ? List.copyOf(reglas) : List.of();
+    }
+
+    /**
+     * @param ruta Patrón de la ruta, en la sintaxis de PathPattern.
+     * @param solicitudes Peticiones permitidas en cada periodo.
+     * @param periodo Periodo en que se reponen las solicitudes.
+     * @param rafaga Peticiones seguidas que se aceptan antes de limitar;
+     *               por defecto, las mismas solicitudes del periodo.
+     */
+    public record Regla(String ruta, int solicitudes, Duration periodo, Integer rafaga) {
+        public Regla {
+            if (ruta == null || solicitudes <= 0 || periodo == null || periodo.isNegative() || periodo.isZero())
+                throw new IllegalArgumentException(
+                        "Regla de límite inválida: se requieren ruta, solicitudes y periodo positivos."
+                );
+            if (rafaga == null || rafaga <= 0)
+                rafaga = solicitudes;
+        }
+    }
+}
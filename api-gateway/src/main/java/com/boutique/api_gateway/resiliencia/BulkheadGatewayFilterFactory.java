@@ -0,0 +1,104 @@
+package com.boutique.api_gateway.resiliencia;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limita las peticiones simultáneas de una ruta hacia su servicio (bulkhead).
+ *
+ * Cada ruta que declara el filtro tiene su propio semáforo, así una ruta lenta
+ * (reportes, IA) sólo puede ocupar sus propios permisos y no todas las
+ * conexiones del pool que usan las ventas y los pagos. Si no hay permiso libre
+ * se responde 503 de inmediato, sin esperar ni encolar.
+ *
+ * Uso en application.yaml:
+ * <pre>
+ * filters:
+ *   - name: Bulkhead
+ *     args:
+ *       max-concurrentes: 4
+ * </pre>
+ * @author GERSON
+ */
+
+@Component
+public class BulkheadGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<BulkheadGatewayFilterFactory.Config> {
+
+    private final MeterRegistry registry;
+
+    public BulkheadGatewayFilterFactory(MeterRegistry registry) {
+        super(Config.class);
+        this.registry = registry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("maxConcurrentes");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        if (config.getMaxConcurrentes() <= 0)
+            throw new IllegalArgumentException(
+                    "Bulkhead de la ruta " + config.getRouteId() + ": max-concurrentes debe ser mayor a cero."
+            );
+
+        Semaphore permisos = new Semaphore(config.getMaxConcurrentes());
+        Gauge.builder("gateway.bulkhead.en.curso", permisos,
+                        semaforo -> config.getMaxConcurrentes() - semaforo.availablePermits())
+                .description("Peticiones en curso por ruta")
+                .tag("ruta", String.valueOf(config.getRouteId()))
+                .register(this.registry);
+        Counter rechazadas = Counter.builder("gateway.bulkhead.rechazadas")
+                .description("Peticiones rechazadas por no haber permisos libres")
+                .tag("ruta", String.valueOf(config.getRouteId()))
+                .register(this.registry);
+        byte[] cuerpo = String.format(
+                "{\"status\": %d, \"error\": \"%s\"}",
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "El servicio está atendiendo demasiadas solicitudes, intente más tarde"
+        ).getBytes(StandardCharsets.UTF_8);
+
+        return (exchange, chain) -> {
+            if (!permisos.tryAcquire()) {
+                rechazadas.increment();
+                return rechazar(exchange, cuerpo);
+            }
+            // doFinally cubre respuesta completa, error y cancelación del cliente
+            return chain.filter(exchange).doFinally(senal -> permisos.release());
+        };
+    }
+
+    private static Mono<Void> rechazar(ServerWebExchange exchange, byte[] cuerpo) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        HttpHeaders headers = response.getHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setContentLength(cuerpo.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cuerpo)));
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+        private int maxConcurrentes;
+        private String routeId;
+    }
+}
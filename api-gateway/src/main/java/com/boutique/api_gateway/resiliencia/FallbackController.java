@@ -0,0 +1,46 @@
+package com.boutique.api_gateway.resiliencia;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.Map;
+
+/**
+ * Respuesta de las rutas con circuit breaker cuando el servicio falla, tarda
+ * más que su timeout o el circuito está abierto (fallbackUri: forward:/fallback/...).
+ * @author GERSON
+ */
+
+@RestController
+@RequestMapping("/fallback")
+public class FallbackController {
+
+    private static final Map<String, String> SERVICIOS = Map.of(
+            "boutique", "El servicio de la boutique",
+            "reportes", "El servicio de reportes",
+            "ia", "El servicio de IA"
+    );
+
+    @RequestMapping("/{servicio}")
+    public ResponseEntity<Map<String, Object>> fallback(
+            @PathVariable String servicio, ServerWebExchange exchange
+    ) {
+        Throwable causa = exchange.getAttribute(ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR);
+        String nombre = SERVICIOS.getOrDefault(servicio, "El servicio");
+        String error = causa instanceof CallNotPermittedException
+                ? nombre + " no está disponible temporalmente, intente más tarde"
+                : nombre + " no respondió, intente más tarde";
+
+        HttpStatus estado = HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(estado)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(Map.of("status", estado.value(), "error", error));
+    }
+}
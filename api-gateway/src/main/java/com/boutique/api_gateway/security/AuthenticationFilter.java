@@ -1,5 +1,6 @@
 package com.boutique.api_gateway.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
@@ -8,47 +9,52 @@ import org.springframework.core.Ordered;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 import reactor.core.publisher.Mono;
 
 import java.nio.charset.StandardCharsets;
-import java.util.List;
-import java.util.function.Predicate;
 
 /**
+ * Valida el JWT de las rutas no públicas. Las peticiones autenticadas hacia el
+ * backend llevan además la identidad firmada por IdentidadInterna; los headers
+ * de identidad que envíe el cliente se descartan siempre.
  * @author GERSON
  */
 
 @Component
 public class AuthenticationFilter implements GlobalFilter, Ordered {
 
+    // Servicio que recibe la identidad firmada
+    private static final PathPattern RUTA_BACKEND = PathPatternParser.defaultInstance.parse("/api/**");
+
     @Autowired
     private JwtUtils jwtUtils;
+    @Autowired
+    private IdentidadInterna identidadInterna;
 
-    // Lista de endpoints públicos que no requieren autenticación
-    public static final List<String> publicEndpoints = List.of(
-            "/api/auth/login",
-            "/api/auth/login2",
-            "/api/auth/refresh",
-            "/api/clientes/con-usuario",
-            "/api/catalogo/**"
-    );
+    // Endpoints públicos que no requieren autenticación (seguridad.rutas-publicas),
+    // compilados una sola vez al arrancar
+    private final PathPattern[] rutasPublicas;
+
+    public AuthenticationFilter(RutasPublicasProperties propiedades) {
+        this.rutasPublicas = propiedades.rutasPublicas().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toArray(PathPattern[]::new);
+    }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        exchange = sinIdentidadDelCliente(exchange);
         ServerHttpRequest request = exchange.getRequest();
-        String path = request.getURI().getPath();
-        String method = request.getMethod().toString();
 
         // 1. Comprobar si la ruta es pública
-        Predicate<ServerHttpRequest> isPublic =
-                r -> publicEndpoints.stream()
-                        .anyMatch(uri -> r.getURI().getPath().contains(uri));
-
-        if (isPublic.test(request)) {
+        if (esRutaPublica(request)) {
             // Si es pública, dejarla pasar sin verificar
             return chain.filter(exchange);
         }
@@ -69,9 +75,10 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
         // 4. Extraer el token
         String token = authHeader.substring(7); // Quita "Bearer "
 
+        Claims claims;
         try {
-            // 5. Validar el token
-            jwtUtils.validateToken(token);
+            // 5. Validar el token (una verificación por token; luego se sirve de caché)
+            claims = jwtUtils.parseClaims(token);
 
         } catch (JwtException e) {
             // 6. Si la validación falla (expirado, firma mal), rechazar
@@ -79,8 +86,58 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
         }
 
         // 7. El token es válido, continuar con la petición original
-        // El header Authorization se preserva automáticamente y se reenvía al microservicio
-        return chain.filter(exchange);
+        // El header Authorization se preserva automáticamente y se reenvía al microservicio;
+        // el backend usa la identidad firmada y sólo valida el token si falta
+        return chain.filter(conIdentidadFirmada(exchange, claims));
+    }
+
+    private static ServerWebExchange sinIdentidadDelCliente(ServerWebExchange exchange) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        boolean presente = false;
+        for (String header : IdentidadInterna.HEADERS)
+            presente |= headers.containsKey(header);
+        if (!presente)
+            return exchange;
+
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(h -> IdentidadInterna.HEADERS.forEach(h::remove))
+                .build();
+        return exchange.mutate().request(request).build();
+    }
+
+    private ServerWebExchange conIdentidadFirmada(ServerWebExchange exchange, Claims claims) {
+        ServerHttpRequest request = exchange.getRequest();
+        String usuario = claims.getSubject();
+        String rol = claims.get("rol", String.class);
+        if (usuario == null || rol == null || !RUTA_BACKEND.matches(request.getPath().pathWithinApplication()))
+            return exchange;
+
+        long fecha = System.currentTimeMillis();
+        String firma = identidadInterna.firmar(
+                usuario, rol, fecha, request.getMethod().name(), request.getPath().value()
+        );
+        ServerHttpRequest firmada = request.mutate()
+                .headers(h -> {
+                    h.set(IdentidadInterna.HEADER_USUARIO, usuario);
+                    h.set(IdentidadInterna.HEADER_ROL, rol);
+                    h.set(IdentidadInterna.HEADER_FECHA, Long.toString(fecha));
+                    h.set(IdentidadInterna.HEADER_FIRMA, firma);
+                })
+                .build();
+        return exchange.mutate().request(firmada).build();
+    }
+
+    /**
+     * Compara la ruta, ya segmentada por la petición, contra los patrones
+     * precompilados; no crea objetos por petición.
+     */
+    private boolean esRutaPublica(ServerHttpRequest request) {
+        PathContainer ruta = request.getPath().pathWithinApplication();
+        for (PathPattern patron : this.rutasPublicas) {
+            if (patron.matches(ruta))
+                return true;
+        }
+        return false;
     }
 
     /**
@@ -0,0 +1,68 @@
+package com.boutique.api_gateway.security;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Firma la identidad que el Gateway ya verificó en el JWT, para que el backend
+ * la acepte sin volver a validar el token ni cargar el usuario.
+ *
+ * La firma es un HMAC-SHA256 con un secreto que sólo conocen el Gateway y el
+ * backend (identidad-interna.secreto) sobre usuario, rol, instante, método y
+ * ruta; el backend la rechaza si no coincide o si es demasiado vieja.
+ * @author GERSON
+ */
+
+@Component
+public class IdentidadInterna {
+    public static final String HEADER_USUARIO = "X-Identidad-Usuario";
+    public static final String HEADER_ROL = "X-Identidad-Rol";
+    public static final String HEADER_FECHA = "X-Identidad-Fecha";
+    public static final String HEADER_FIRMA = "X-Identidad-Firma";
+    // Headers que un cliente nunca debe poder enviar por su cuenta
+    public static final List<String> HEADERS = List.of(
+            HEADER_USUARIO, HEADER_ROL, HEADER_FECHA, HEADER_FIRMA
+    );
+
+    private static final String ALGORITMO = "HmacSHA256";
+
+    @Value("${identidad-interna.secreto}")
+    private String secreto;
+
+    private SecretKeySpec clave;
+    // Mac no es thread-safe; una instancia por hilo del event loop
+    private ThreadLocal<Mac> macs;
+
+    @PostConstruct
+    void init() {
+        this.clave = new SecretKeySpec(this.secreto.getBytes(StandardCharsets.UTF_8), ALGORITMO);
+        this.macs = ThreadLocal.withInitial(this::nuevoMac);
+    }
+
+    /**
+     * @return Firma en Base64 URL, sin relleno.
+     */
+    public String firmar(String usuario, String rol, long fecha, String metodo, String ruta) {
+        String contenido = usuario + '\n' + rol + '\n' + fecha + '\n' + metodo + '\n' + ruta;
+        byte[] firma = this.macs.get().doFinal(contenido.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(firma);
+    }
+
+    private Mac nuevoMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(this.clave);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo inicializar " + ALGORITMO, e);
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package com.boutique.api_gateway.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
 
 /**
  * @author GERSON
@@ -20,8 +27,43 @@ public class JwtUtils {
     @Value("${jwt.secret}")
     private String secret;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    private static final int MAX_TOKENS = 10_000;
+    // Para tokens sin fecha de expiración
+    private static final Duration TTL_SIN_EXPIRACION = Duration.ofMinutes(15);
+
+    private JwtParser parser;
+
+    // Tokens ya verificados; cada entrada vive hasta la expiración del token
+    private final Cache<String, Claims> tokensVerificados = Caffeine.newBuilder()
+            .maximumSize(MAX_TOKENS)
+            .expireAfter(Expiry.<String, Claims>creating(
+                    (token, claims) -> tiempoHastaExpirar(claims)
+            ))
+            .build();
+
+    @PostConstruct
+    void init() {
+        SecretKey signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
+    /**
+     * Verifica el token una sola vez y devuelve sus claims.
+     * Los tokens ya verificados se sirven desde memoria hasta que expiran.
+     * Si el token es inválido (expirado, firma incorrecta), lanzará una JwtException.
+     * @param token El token JWT.
+     * @return Los claims verificados del token.
+     */
+    public Claims parseClaims(String token) throws JwtException {
+        Claims claims = this.tokensVerificados.getIfPresent(token);
+        if (claims != null && !estaExpirado(claims))
+            return claims;
+
+        claims = this.parser.parseSignedClaims(token).getPayload();
+        this.tokensVerificados.put(token, claims);
+        return claims;
     }
 
     /**
@@ -30,10 +72,7 @@ public class JwtUtils {
      * @param token El token JWT a validar.
      */
     public void validateToken(String token) throws JwtException {
-        Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token);
+        this.parseClaims(token);
     }
 
     /**
@@ -42,10 +81,19 @@ public class JwtUtils {
      * @return Los claims del token.
      */
     public Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return this.parseClaims(token);
+    }
+
+    private static boolean estaExpirado(Claims claims) {
+        Date expiracion = claims.getExpiration();
+        return expiracion != null && expiracion.getTime() <= System.currentTimeMillis();
+    }
+
+    private static Duration tiempoHastaExpirar(Claims claims) {
+        Date expiracion = claims.getExpiration();
+        if (expiracion == null)
+            return TTL_SIN_EXPIRACION;
+        long restante = expiracion.getTime() - System.currentTimeMillis();
+        return Duration.ofMillis(Math.max(restante, 0));
     }
 }
@@ -0,0 +1,18 @@
+package com.boutique.api_gateway.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Rutas que el AuthenticationFilter deja pasar sin token, en la sintaxis de
+ * PathPattern de Spring (por ejemplo "/api/catalogo/**").
+ * @author GERSON
+ */
+
+@ConfigurationProperties(prefix = "seguridad")
+public record RutasPublicasProperties(List<String> rutasPublicas) {
+    public RutasPublicasProperties {
+        rutasPublicas = rutasPublicas != null ? List.copyOf(rutasPublicas) : List.of();
+    }
+}
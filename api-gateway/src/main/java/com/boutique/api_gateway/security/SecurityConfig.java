@@ -1,5 +1,6 @@
 package com.boutique.api_gateway.security;
 
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
@@ -18,6 +19,7 @@ import org.springframework.security.web.server.SecurityWebFilterChain;
  */
 @Configuration
 @EnableWebFluxSecurity // Importante: Usar la versión reactiva (WebFlux) para Gateway
+@EnableConfigurationProperties(RutasPublicasProperties.class)
 public class SecurityConfig {
 
     @Bean
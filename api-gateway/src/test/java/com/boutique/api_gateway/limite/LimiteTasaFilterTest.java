@@ -0,0 +1,172 @@
+package com.boutique.api_gateway.limite;
+
+import com.boutique.api_gateway.security.JwtUtils;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Límite de tasa con un reloj controlado: ráfaga, reposición por intervalo,
+ * respuesta 429 con Retry-After y clave por IP cuando no hay un JWT válido.
+ * @author GERSON
+ */
+
+class LimiteTasaFilterTest {
+    private static final long SEGUNDO = Duration.ofSeconds(1).toNanos();
+    private static final String IP_A = "10.0.0.1";
+    private static final String IP_B = "10.0.0.2";
+
+    private final JwtUtils jwtUtils = mock(JwtUtils.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger atendidas = new AtomicInteger();
+    private final GatewayFilterChain cadena = exchange -> {
+        this.atendidas.incrementAndGet();
+        return Mono.empty();
+    };
+
+    private long ahora;
+    private LimiteTasaFilter filtro;
+
+    @BeforeEach
+    void crearFiltro() {
+        // Un arranque arbitrario: nanoTime puede ser cualquier valor, incluso negativo
+        this.ahora = -5 * SEGUNDO;
+        this.filtro = new LimiteTasaFilter(
+                new LimiteTasaProperties(List.of(
+                        // Una cada 30 s, sin ráfaga
+                        new LimiteTasaProperties.Regla("/api/auth/login", 2, Duration.ofMinutes(1), 1),
+                        // Una por segundo, ráfaga de 3
+                        new LimiteTasaProperties.Regla("/api/**", 60, Duration.ofMinutes(1), 3)
+                )),
+                this.jwtUtils, this.registry, () -> this.ahora
+        );
+        when(this.jwtUtils.parseClaims("token-ana")).thenReturn(Jwts.claims().subject("ana").build());
+        when(this.jwtUtils.parseClaims("token-invalido")).thenThrow(new MalformedJwtException("firma"));
+        when(this.jwtUtils.parseClaims("otro-invalido")).thenThrow(new MalformedJwtException("firma"));
+    }
+
+    @Test
+    void aceptaLaRafagaYRechazaLaSiguiente() {
+        for (int i = 0; i < 3; i++)
+            assertThat(this.enviar("/api/ventas", IP_A, null).getResponse().getStatusCode()).isNull();
+
+        assertThat(this.enviar("/api/ventas", IP_A, null).getResponse().getStatusCode())
+                .isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(this.atendidas).hasValue(3);
+        assertThat(this.contador("/api/**", "permitida")).isEqualTo(3);
+        assertThat(this.contador("/api/**", "rechazada")).isEqualTo(1);
+    }
+
+    @Test
+    void reponeUnaSolicitudPorIntervaloHastaLaRafaga() {
+        this.agotar("/api/ventas", IP_A, 3);
+
+        this.ahora += SEGUNDO - 1;
+        assertThat(this.rechazada("/api/ventas", IP_A)).isTrue();
+        this.ahora += 1;
+        assertThat(this.rechazada("/api/ventas", IP_A)).isFalse();
+        assertThat(this.rechazada("/api/ventas", IP_A)).isTrue();
+
+        // Un rato largo sin peticiones sólo repone la ráfaga, no más
+        this.ahora += 60 * SEGUNDO;
+        this.agotar("/api/ventas", IP_A, 3);
+        assertThat(this.rechazada("/api/ventas", IP_A)).isTrue();
+    }
+
+    @Test
+    void respondeCon429YRetryAfterRedondeadoHaciaArriba() {
+        this.enviar("/api/auth/login", IP_A, null);
+        this.ahora += SEGUNDO / 2;
+
+        MockServerWebExchange rechazada = this.enviar("/api/auth/login", IP_A, null);
+
+        assertThat(rechazada.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        // Faltan 29,5 s
+        assertThat(rechazada.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("30");
+        assertThat(rechazada.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(rechazada.getResponse().getBodyAsString().block()).contains("\"status\": 429");
+
+        this.ahora += 29 * SEGUNDO;
+        assertThat(this.enviar("/api/auth/login", IP_A, null).getResponse()
+                .getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        this.ahora += SEGUNDO / 2;
+        assertThat(this.rechazada("/api/auth/login", IP_A)).isFalse();
+    }
+
+    @Test
+    void sinJwtValidoLimitaPorIp() {
+        this.agotar("/api/ventas", IP_A, 3, "token-invalido");
+
+        // Otro token inválido desde la misma IP comparte el cubo
+        assertThat(this.enviar("/api/ventas", IP_A, "otro-invalido").getResponse().getStatusCode())
+                .isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(this.rechazada("/api/ventas", IP_A)).isTrue();
+        // Otra IP, u otro cliente con JWT válido desde la misma IP, tienen su propio cubo
+        assertThat(this.rechazada("/api/ventas", IP_B)).isFalse();
+        assertThat(this.enviar("/api/ventas", IP_A, "token-ana").getResponse().getStatusCode()).isNull();
+    }
+
+    @Test
+    void elUsuarioConJwtConservaSuCuboEntreIps() {
+        this.agotar("/api/ventas", IP_A, 3, "token-ana");
+
+        assertThat(this.enviar("/api/ventas", IP_B, "token-ana").getResponse().getStatusCode())
+                .isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void cadaReglaTieneSuPropioCubo() {
+        this.agotar("/api/ventas", IP_A, 3);
+
+        assertThat(this.rechazada("/api/auth/login", IP_A)).isFalse();
+        assertThat(this.rechazada("/actuator/health", IP_A)).isFalse();
+        assertThat(this.rechazada("/actuator/health", IP_A)).isFalse();
+    }
+
+    private void agotar(String ruta, String ip, int solicitudes) {
+        this.agotar(ruta, ip, solicitudes, null);
+    }
+
+    private void agotar(String ruta, String ip, int solicitudes, String token) {
+        for (int i = 0; i < solicitudes; i++)
+            assertThat(this.enviar(ruta, ip, token).getResponse().getStatusCode()).isNull();
+    }
+
+    private boolean rechazada(String ruta, String ip) {
+        return this.enviar(ruta, ip, null).getResponse().getStatusCode() == HttpStatus.TOO_MANY_REQUESTS;
+    }
+
+    private MockServerWebExchange enviar(String ruta, String ip, String token) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(ruta)
+                .remoteAddress(new InetSocketAddress(ip, 40000));
+        if (token != null)
+            request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        this.filtro.filter(exchange, this.cadena).block();
+        return exchange;
+    }
+
+    private double contador(String ruta, String resultado) {
+        return this.registry.get("gateway.limite.tasa")
+                .tag("ruta", ruta).tag("resultado", resultado)
+                .counter().count();
+    }
+}
@@ -0,0 +1,151 @@
+package com.boutique.api_gateway.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Headers de identidad: los que manda el cliente se descartan siempre, también en
+ * rutas públicas, y las peticiones con JWT válido hacia /api llevan la firma del
+ * Gateway sobre usuario, rol, instante, método y ruta.
+ * @author GERSON
+ */
+
+class AuthenticationFilterTest {
+    private static final String SECRETO = "secreto-de-prueba";
+
+    private final JwtUtils jwtUtils = mock(JwtUtils.class);
+    private final AtomicReference<ServerWebExchange> reenviada = new AtomicReference<>();
+    private final GatewayFilterChain cadena = exchange -> {
+        this.reenviada.set(exchange);
+        return Mono.empty();
+    };
+
+    private AuthenticationFilter filtro;
+
+    @BeforeEach
+    void crearFiltro() {
+        IdentidadInterna identidadInterna = new IdentidadInterna();
+        ReflectionTestUtils.setField(identidadInterna, "secreto", SECRETO);
+        identidadInterna.init();
+        this.filtro = new AuthenticationFilter(new RutasPublicasProperties(List.of("/api/catalogo/**")));
+        ReflectionTestUtils.setField(this.filtro, "jwtUtils", this.jwtUtils);
+        ReflectionTestUtils.setField(this.filtro, "identidadInterna", identidadInterna);
+        when(this.jwtUtils.parseClaims("token-ana"))
+                .thenReturn(Jwts.claims().subject("ana").add("rol", "ROLE_ADMIN").build());
+        when(this.jwtUtils.parseClaims("token-invalido")).thenThrow(new MalformedJwtException("firma"));
+    }
+
+    @Test
+    void firmaLaIdentidadDelToken() {
+        this.enviar(MockServerHttpRequest.post("/api/ventas")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token-ana"));
+
+        HttpHeaders headers = this.reenviada.get().getRequest().getHeaders();
+        String fecha = headers.getFirst(IdentidadInterna.HEADER_FECHA);
+        assertThat(headers.getFirst(IdentidadInterna.HEADER_USUARIO)).isEqualTo("ana");
+        assertThat(headers.getFirst(IdentidadInterna.HEADER_ROL)).isEqualTo("ROLE_ADMIN");
+        assertThat(Long.parseLong(fecha)).isCloseTo(System.currentTimeMillis(), within(5_000L));
+        assertThat(headers.getFirst(IdentidadInterna.HEADER_FIRMA))
+                .isEqualTo(firma("ana\nROLE_ADMIN\n" + fecha + "\nPOST\n/api/ventas"));
+    }
+
+    @Test
+    void reemplazaLaIdentidadQueEnviaElCliente() {
+        this.enviar(conIdentidadFalsa(MockServerHttpRequest.get("/api/ventas/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token-ana")));
+
+        HttpHeaders headers = this.reenviada.get().getRequest().getHeaders();
+        assertThat(headers.get(IdentidadInterna.HEADER_USUARIO)).containsExactly("ana");
+        assertThat(headers.get(IdentidadInterna.HEADER_ROL)).containsExactly("ROLE_ADMIN");
+        assertThat(headers.get(IdentidadInterna.HEADER_FIRMA)).containsExactly(firma(
+                "ana\nROLE_ADMIN\n" + headers.getFirst(IdentidadInterna.HEADER_FECHA) + "\nGET\n/api/ventas/1"
+        ));
+    }
+
+    @Test
+    void descartaLaIdentidadDelClienteEnRutasPublicas() {
+        this.enviar(conIdentidadFalsa(MockServerHttpRequest.get("/api/catalogo/productos")));
+
+        assertThat(this.reenviada.get().getRequest().getHeaders())
+                .doesNotContainKeys(IdentidadInterna.HEADERS.toArray(String[]::new));
+    }
+
+    @Test
+    void rutaPublicaConTokenNoSeFirma() {
+        this.enviar(MockServerHttpRequest.get("/api/catalogo/productos")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token-ana"));
+
+        assertThat(this.reenviada.get().getRequest().getHeaders())
+                .doesNotContainKeys(IdentidadInterna.HEADERS.toArray(String[]::new));
+    }
+
+    @Test
+    void tokenInvalidoConIdentidadDelClienteSeRechaza() {
+        MockServerWebExchange exchange = this.enviar(conIdentidadFalsa(MockServerHttpRequest.get("/api/ventas")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token-invalido")));
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(this.reenviada.get()).isNull();
+    }
+
+    @Test
+    void sinTokenNiIdentidadValidaSeRechaza() {
+        MockServerWebExchange exchange = this.enviar(conIdentidadFalsa(MockServerHttpRequest.get("/api/ventas")));
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(this.reenviada.get()).isNull();
+    }
+
+    private MockServerWebExchange enviar(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        this.filtro.filter(exchange, this.cadena).block();
+        return exchange;
+    }
+
+    /**
+     * Identidad que un cliente intenta hacer pasar como firmada por el Gateway.
+     */
+    private static MockServerHttpRequest.BaseBuilder<?> conIdentidadFalsa(MockServerHttpRequest.BaseBuilder<?> request) {
+        return request
+                .header(IdentidadInterna.HEADER_USUARIO, "admin")
+                .header(IdentidadInterna.HEADER_ROL, "ROLE_ADMIN")
+                .header(IdentidadInterna.HEADER_FECHA, Long.toString(System.currentTimeMillis()))
+                .header(IdentidadInterna.HEADER_FIRMA, "firma-falsa");
+    }
+
+    /**
+     * HMAC-SHA256 calculado aparte, con el formato que verifica el backend.
+     */
+    private static String firma(String contenido) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(SECRETO.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(mac.doFinal(contenido.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
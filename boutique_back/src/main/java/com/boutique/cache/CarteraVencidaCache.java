@@ -0,0 +1,216 @@
+package com.boutique.cache;
+
+import com.boutique.entity.dto.AntiguedadCarteraDto;
+import com.boutique.entity.dto.CuotaVencidaDto;
+import com.boutique.entity.dto.TramoAntiguedadDto;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Cuotas vencidas en memoria y su antigüedad por sucursal.
+ *
+ * El recálculo completo lo hace CobranzaServiceImpl de forma programada y se
+ * publica como una cartera nueva. Entre recálculos, cada cuota pagada o venta
+ * cancelada se quita de la cartera vigente sin reconstruirla: se borra su
+ * entrada de los índices ordenados y se descuenta del tramo de su sucursal.
+ * Las lecturas de cuotas no toman el lock; los índices son concurrentes y
+ * siguen ordenados por fecha de vencimiento.
+ * @author GERSON
+ */
+
+@Component
+public class CarteraVencidaCache {
+    // Límite superior de días de cada tramo; el último tramo no tiene límite
+    private static final long[] LIMITES_TRAMOS = {30, 60, 90};
+    private static final String[] NOMBRES_TRAMOS = {"1-30", "31-60", "61-90", "90+"};
+
+    private volatile Cartera cartera = new Cartera(null);
+    // Cuotas pagadas y ventas canceladas desde que empezó el último recálculo
+    private final Set<Long> pagadasDuranteRecalculo = new HashSet<>();
+    private final Set<Long> canceladasDuranteRecalculo = new HashSet<>();
+
+    /**
+     * Marca el inicio de un recálculo. Los pagos y cancelaciones confirmados
+     * desde este momento se descuentan de la cartera que se publique al terminar.
+     */
+    public synchronized void iniciarRecalculo() {
+        this.pagadasDuranteRecalculo.clear();
+        this.canceladasDuranteRecalculo.clear();
+    }
+
+    public synchronized void publicar(LocalDate fechaCorte, List<CuotaVencidaDto> cuotas) {
+        Cartera nueva = new Cartera(fechaCorte);
+        for (CuotaVencidaDto cuota : cuotas) {
+            if (this.pagadasDuranteRecalculo.contains(cuota.getIdCuota())
+                    || this.canceladasDuranteRecalculo.contains(cuota.getIdVenta()))
+                continue;
+            cuota.setDiasVencida(ChronoUnit.DAYS.between(cuota.getFechaVencimiento(), fechaCorte));
+            nueva.agregar(cuota);
+        }
+        this.cartera = nueva;
+    }
+
+    public synchronized void quitarCuota(Long idCuota) {
+        this.pagadasDuranteRecalculo.add(idCuota);
+        this.cartera.quitar(idCuota);
+    }
+
+    /**
+     * Quita todas las cuotas de una venta cancelada.
+     */
+    public synchronized void quitarVenta(Long idVenta) {
+        this.canceladasDuranteRecalculo.add(idVenta);
+        Cartera actual = this.cartera;
+        List<Long> cuotas = actual.cuotasPorVenta.remove(idVenta);
+        if (cuotas != null)
+            cuotas.forEach(actual::quitar);
+    }
+
+    /**
+     * @param idSucursal Sucursal a filtrar, o null para todas.
+     * @return Cuotas vencidas de la página, ordenadas por fecha de vencimiento.
+     */
+    public List<CuotaVencidaDto> obtenerCuotas(Long idSucursal, long desde, int cantidad) {
+        Cartera actual = this.cartera;
+        NavigableMap<ClaveCuota, CuotaVencidaDto> cuotas = idSucursal == null
+                ? actual.cuotas
+                : actual.porSucursal.get(idSucursal);
+        if (cuotas == null)
+            return List.of();
+        return cuotas.values().stream()
+                .skip(desde)
+                .limit(cantidad)
+                .toList();
+    }
+
+    public synchronized long contarCuotas(Long idSucursal) {
+        Cartera actual = this.cartera;
+        if (idSucursal == null)
+            return actual.total;
+        Antiguedad antiguedad = actual.antiguedad.get(idSucursal);
+        return antiguedad != null ? antiguedad.totalCuotas : 0;
+    }
+
+    public synchronized List<AntiguedadCarteraDto> obtenerAntiguedad(Long idSucursal) {
+        Cartera actual = this.cartera;
+        List<AntiguedadCarteraDto> resultado = new ArrayList<>();
+        actual.antiguedad.forEach((sucursal, antiguedad) -> {
+            if (antiguedad.totalCuotas > 0 && (idSucursal == null || idSucursal.equals(sucursal)))
+                resultado.add(antiguedad.toDto(sucursal, actual.fechaCorte));
+        });
+        return resultado;
+    }
+
+    static int tramo(long diasVencida) {
+        for (int i = 0; i < LIMITES_TRAMOS.length; i++)
+            if (diasVencida <= LIMITES_TRAMOS[i])
+                return i;
+        return LIMITES_TRAMOS.length;
+    }
+
+    private record ClaveCuota(LocalDate fechaVencimiento, long idCuota) implements Comparable<ClaveCuota> {
+        static ClaveCuota de(CuotaVencidaDto cuota) {
+            return new ClaveCuota(cuota.getFechaVencimiento(), cuota.getIdCuota());
+        }
+
+        @Override
+        public int compareTo(ClaveCuota otra) {
+            int comparacion = this.fechaVencimiento.compareTo(otra.fechaVencimiento);
+            return comparacion != 0 ? comparacion : Long.compare(this.idCuota, otra.idCuota);
+        }
+    }
+
+    /**
+     * Índices de una cartera. Las escrituras se hacen con el lock de
+     * CarteraVencidaCache; antiguedad y total sólo se leen con ese lock.
+     */
+    private static final class Cartera {
+        final LocalDate fechaCorte;
+        final NavigableMap<ClaveCuota, CuotaVencidaDto> cuotas = new ConcurrentSkipListMap<>();
+        final Map<Long, NavigableMap<ClaveCuota, CuotaVencidaDto>> porSucursal = new ConcurrentHashMap<>();
+        final Map<Long, CuotaVencidaDto> porId = new HashMap<>();
+        final Map<Long, List<Long>> cuotasPorVenta = new HashMap<>();
+        // LinkedHashMap conserva el orden en que aparece cada sucursal por vencimiento
+        final Map<Long, Antiguedad> antiguedad = new LinkedHashMap<>();
+        long total;
+
+        Cartera(LocalDate fechaCorte) {
+            this.fechaCorte = fechaCorte;
+        }
+
+        void agregar(CuotaVencidaDto cuota) {
+            ClaveCuota clave = ClaveCuota.de(cuota);
+            this.cuotas.put(clave, cuota);
+            this.porSucursal.computeIfAbsent(cuota.getIdSucursal(), k -> new ConcurrentSkipListMap<>())
+                    .put(clave, cuota);
+            this.porId.put(cuota.getIdCuota(), cuota);
+            this.cuotasPorVenta.computeIfAbsent(cuota.getIdVenta(), k -> new ArrayList<>())
+                    .add(cuota.getIdCuota());
+            this.antiguedad.computeIfAbsent(cuota.getIdSucursal(), k -> new Antiguedad())
+                    .sumar(tramo(cuota.getDiasVencida()), cuota.getMonto());
+            this.total++;
+        }
+
+        void quitar(Long idCuota) {
+            CuotaVencidaDto cuota = this.porId.remove(idCuota);
+            if (cuota == null)
+                return;
+
+            ClaveCuota clave = ClaveCuota.de(cuota);
+            this.cuotas.remove(clave);
+            NavigableMap<ClaveCuota, CuotaVencidaDto> sucursal = this.porSucursal.get(cuota.getIdSucursal());
+            if (sucursal != null)
+                sucursal.remove(clave);
+            this.antiguedad.get(cuota.getIdSucursal())
+                    .restar(tramo(cuota.getDiasVencida()), cuota.getMonto());
+            this.total--;
+        }
+    }
+
+    /**
+     * Cantidad y monto por tramo de una sucursal.
+     */
+    private static final class Antiguedad {
+        final long[] cantidades = new long[NOMBRES_TRAMOS.length];
+        final BigDecimal[] montos = new BigDecimal[NOMBRES_TRAMOS.length];
+        long totalCuotas;
+        BigDecimal totalMonto = BigDecimal.ZERO;
+
+        Antiguedad() {
+            Arrays.fill(this.montos, BigDecimal.ZERO);
+        }
+
+        void sumar(int tramo, BigDecimal monto) {
+            this.cantidades[tramo]++;
+            this.montos[tramo] = this.montos[tramo].add(monto);
+            this.totalCuotas++;
+            this.totalMonto = this.totalMonto.add(monto);
+        }
+
+        void restar(int tramo, BigDecimal monto) {
+            this.cantidades[tramo]--;
+            this.montos[tramo] = this.montos[tramo].subtract(monto);
+            this.totalCuotas--;
+            this.totalMonto = this.totalMonto.subtract(monto);
+        }
+
+        AntiguedadCarteraDto toDto(Long idSucursal, LocalDate fechaCorte) {
+            List<TramoAntiguedadDto> tramos = new ArrayList<>(NOMBRES_TRAMOS.length);
+            for (int i = 0; i < NOMBRES_TRAMOS.length; i++)
+                tramos.add(new TramoAntiguedadDto(NOMBRES_TRAMOS[i], this.cantidades[i], this.montos[i]));
+            return AntiguedadCarteraDto.builder()
+                    .idSucursal(idSucursal)
+                    .fechaCorte(fechaCorte)
+                    .tramos(tramos)
+                    .totalCuotas(this.totalCuotas)
+                    .totalMonto(this.totalMonto)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.boutique.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Claves de idempotencia vistas en las últimas horas, por usuario y ruta.
+ *
+ * Cada clave pasa por dos estados: reservada mientras la primera petición se
+ * ejecuta, y luego con la respuesta que se entregó. Ambos estados guardan el
+ * hash del cuerpo de la petición original. Todas las operaciones son
+ * sobre un mapa concurrente, sin consultar la base de datos; cada entrada vence
+ * al cumplirse el TTL desde que se reservó.
+ * @author GERSON
+ */
+
+@Component
+public class IdempotenciaCache {
+    private final Duration ttl;
+    private final Cache<ClaveIdempotencia, RespuestaIdempotente> respuestas;
+
+    public IdempotenciaCache(
+            MeterRegistry registry,
+            @Value("${idempotencia.ttl:PT24H}") Duration ttl,
+            @Value("${idempotencia.max-claves:100000}") long maxClaves
+    ) {
+        this.ttl = ttl;
+        this.respuestas = Caffeine.newBuilder()
+                .maximumSize(maxClaves)
+                .expireAfter(Expiry.creating((ClaveIdempotencia clave, RespuestaIdempotente respuesta) -> {
+                    Duration restante = Duration.between(LocalDateTime.now(), respuesta.fechaCreacion().plus(ttl));
+                    return restante.isNegative() ? Duration.ZERO : restante;
+                }))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, this.respuestas, "idempotencia");
+    }
+
+    public Duration getTtl() {
+        return this.ttl;
+    }
+
+    /**
+     * Reserva la clave para una petición nueva.
+     * @return null si la reserva quedó hecha; si no, la entrada existente, que
+     * puede estar todavía en proceso.
+     */
+    public RespuestaIdempotente reservar(ClaveIdempotencia clave, byte[] hashSolicitud) {
+        return this.respuestas.asMap().putIfAbsent(
+                clave, RespuestaIdempotente.enProceso(hashSolicitud)
+        );
+    }
+
+    public void completar(ClaveIdempotencia clave, RespuestaIdempotente respuesta) {
+        this.respuestas.asMap().replace(clave, respuesta);
+    }
+
+    /**
+     * Libera una reserva cuya petición falló, para que el reintento se ejecute.
+     */
+    public void liberar(ClaveIdempotencia clave) {
+        this.respuestas.asMap().computeIfPresent(
+                clave, (id, actual) -> actual.isEnProceso() ? null : actual
+        );
+    }
+
+    /**
+     * Carga una respuesta ya registrada, sin pisar una entrada existente.
+     */
+    public void precargar(ClaveIdempotencia clave, RespuestaIdempotente respuesta) {
+        this.respuestas.asMap().putIfAbsent(clave, respuesta);
+    }
+
+    /**
+     * @param usuario Usuario autenticado que envió la clave, o vacío si es anónimo.
+     * @param valor Valor de la cabecera Idempotency-Key.
+     */
+    public record ClaveIdempotencia(String usuario, String ruta, String valor) {
+    }
+
+    /**
+     * @param estado Código HTTP entregado, o 0 mientras la petición está en proceso.
+     * @param cabeceras Cabeceras de la respuesta original, sin Content-Type (que va
+     * en tipoContenido) ni las que dependen de cada envío.
+     * @param hashSolicitud SHA-256 del cuerpo de la petición original; null en
+     * registros anteriores a que se guardara.
+     */
+    public record RespuestaIdempotente(
+            int estado, String tipoContenido, HttpHeaders cabeceras, byte[] cuerpo, byte[] hashSolicitud,
+            LocalDateTime fechaCreacion
+    ) {
+        public RespuestaIdempotente {
+            cabeceras = cabeceras != null ? HttpHeaders.readOnlyHttpHeaders(cabeceras) : HttpHeaders.EMPTY;
+        }
+
+        static RespuestaIdempotente enProceso(byte[] hashSolicitud) {
+            return new RespuestaIdempotente(0, null, null, null, hashSolicitud, LocalDateTime.now());
+        }
+
+        public boolean isEnProceso() {
+            return this.estado == 0;
+        }
+
+        /**
+         * @return true si la petición repetida trae el mismo cuerpo que la original.
+         */
+        public boolean coincide(byte[] hashSolicitud) {
+            return this.hashSolicitud == null || MessageDigest.isEqual(this.hashSolicitud, hashSolicitud);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.boutique.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caché en memoria del stock por (sucursal, producto).
+ *
+ * La clave es un long que empaqueta ambos ids (32 bits cada uno). La caché está
+ * acotada a MAX_ENTRADAS pares (sucursal, producto); los menos usados se
+ * descartan y se vuelven a leer de la base de datos cuando se piden otra vez.
+ *
+ * Las escrituras de stock no pasan por aquí: la base de datos sigue siendo la
+ * fuente de verdad y cada cambio invalida la entrada al confirmarse la transacción.
+ * @author GERSON
+ */
+
+@Component
+public class StockCache {
+    private static final long MAX_ID = 0xFFFFFFFFL;
+    private static final int MAX_ENTRADAS = 100_000;
+
+    private final Cache<Long, Integer> stock = Caffeine.newBuilder()
+            .maximumSize(MAX_ENTRADAS)
+            .build();
+    // Se incrementa en cada invalidación; evita guardar un valor leído antes de un cambio
+    private final AtomicLong generacion = new AtomicLong();
+    private final Counter aciertos;
+    private final Counter fallos;
+
+    public StockCache(MeterRegistry registry) {
+        this.aciertos = Counter.builder("inventario.stock.cache")
+                .tag("resultado", "acierto")
+                .register(registry);
+        this.fallos = Counter.builder("inventario.stock.cache")
+                .tag("resultado", "fallo")
+                .register(registry);
+        Gauge.builder("inventario.stock.cache.entradas", this.stock, Cache::estimatedSize)
+                .register(registry);
+    }
+
+    /**
+     * Devuelve el stock en caché o lo carga con la función indicada.
+     * @param idSucursal Id de la sucursal.
+     * @param idProducto Id del producto.
+     * @param cargar Consulta a la base de datos en caso de fallo.
+     * @return Cantidad en stock.
+     */
+    public Integer obtener(Long idSucursal, Long idProducto, Supplier<Integer> cargar) {
+        if (!esCacheable(idSucursal, idProducto))
+            return cargar.get();
+
+        long clave = clave(idSucursal, idProducto);
+        Integer cantidad = this.stock.getIfPresent(clave);
+        if (cantidad != null) {
+            this.aciertos.increment();
+            return cantidad;
+        }
+
+        this.fallos.increment();
+        long generacionLectura = this.generacion.get();
+        cantidad = cargar.get();
+        this.stock.put(clave, cantidad);
+        if (this.generacion.get() != generacionLectura) {
+            // Hubo una invalidación mientras se leía: el valor puede estar desactualizado
+            this.stock.asMap().remove(clave, cantidad);
+        }
+        return cantidad;
+    }
+
+    /**
+     * Invalida la entrada. Si hay una transacción activa se espera a que termine,
+     * para que ninguna lectura posterior vea el valor anterior al cambio.
+     */
+    public void invalidar(Long idSucursal, Long idProducto) {
+        if (!esCacheable(idSucursal, idProducto))
+            return;
+
+        long clave = clave(idSucursal, idProducto);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            eliminar(clave);
+                        }
+                    }
+            );
+        } else {
+            eliminar(clave);
+        }
+    }
+
+    private void eliminar(long clave) {
+        this.generacion.incrementAndGet();
+        this.stock.invalidate(clave);
+    }
+
+    private boolean esCacheable(Long idSucursal, Long idProducto) {
+        return idSucursal != null && idProducto != null
+                && idSucursal >= 0 && idSucursal <= MAX_ID
+                && idProducto >= 0 && idProducto <= MAX_ID;
+    }
+
+    private static long clave(long idSucursal, long idProducto) {
+        return (idSucursal << 32) | idProducto;
+    }
+}
@@ -0,0 +1,70 @@
+package com.boutique.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Caché acotada de UserDetails por username, para que JwtFilter no consulte la
+ * tabla usuario en cada petición autenticada.
+ *
+ * Las entradas expiran solas a los pocos minutos y UsuarioServiceImpl las
+ * invalida al cambiar rol, contraseña, username o estado del usuario.
+ * @author GERSON
+ */
+
+@Component
+public class UsuarioCache {
+    private static final int MAX_USUARIOS = 10_000;
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private final Cache<String, UserDetails> usuarios = Caffeine.newBuilder()
+            .maximumSize(MAX_USUARIOS)
+            .expireAfterWrite(TTL)
+            .recordStats()
+            .build();
+
+    public UsuarioCache(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, this.usuarios, "usuarios");
+    }
+
+    /**
+     * Devuelve el usuario en caché o lo carga con la función indicada.
+     * Siempre entrega una copia: el AuthenticationManager borra la contraseña
+     * del UserDetails que autentica y no debe afectar a la entrada guardada.
+     */
+    public UserDetails obtener(String username, Function<String, UserDetails> cargar) {
+        return User.withUserDetails(this.usuarios.get(username, cargar)).build();
+    }
+
+    /**
+     * Invalida la entrada. Si hay una transacción activa se espera a que termine,
+     * para que una carga concurrente no vuelva a guardar los datos anteriores.
+     */
+    public void invalidar(String username) {
+        if (username == null)
+            return;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            usuarios.invalidate(username);
+                        }
+                    }
+            );
+        } else {
+            this.usuarios.invalidate(username);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.boutique.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Cachés de datos de referencia (planes de crédito y sucursales). El gestor y sus
+ * límites se configuran en spring.cache de application.yml, y las métricas de
+ * aciertos y tamaño se publican como cache.* en /actuator/metrics.
+ *
+ * El interceptor de caché se ubica por fuera del transaccional, así las
+ * invalidaciones se aplican después del commit y una lectura concurrente no
+ * vuelve a cargar los datos anteriores.
+ * @author GERSON
+ */
+
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+    public static final String PLANES_CREDITO = "planesCredito";
+    public static final String PLAN_CREDITO = "planCredito";
+    public static final String SUCURSALES = "sucursales";
+    public static final String SUCURSAL = "sucursal";
+}
@@ -0,0 +1,24 @@
+package com.boutique.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/**
+ * Ejecutor de los consumidores de eventos de dominio: un hilo virtual por
+ * evento, así un consumidor que espera a la base de datos no ocupa un hilo
+ * del servidor ni del ejecutor compartido de @Async.
+ * @author GERSON
+ */
+
+@Configuration
+public class EventosConfig {
+    public static final String EJECUTOR_EVENTOS = "eventosExecutor";
+
+    @Bean(EJECUTOR_EVENTOS)
+    public SimpleAsyncTaskExecutor eventosExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("evento-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+}
@@ -0,0 +1,43 @@
+package com.boutique.controller;
+
+import com.boutique.entity.dto.AntiguedadCarteraDto;
+import com.boutique.entity.dto.CuotaVencidaDto;
+import com.boutique.entity.dto.PaginacionDto;
+import com.boutique.service.CobranzaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * @author GERSON
+ */
+
+@RestController
+@RequestMapping("/api/cobranza")
+public class CobranzaController {
+    @Autowired
+    private CobranzaService service;
+
+    @GetMapping("/vencidas")
+    public ResponseEntity<PaginacionDto<CuotaVencidaDto>> listarCuotasVencidas(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Long idSucursal
+    ) {
+        Pageable pageable = PageRequest.of(page, size);
+        Page<CuotaVencidaDto> cuotas = this.service.listarCuotasVencidas(idSucursal, pageable);
+        return ResponseEntity.ok(PaginacionDto.fromPage(cuotas));
+    }
+
+    @GetMapping("/antiguedad")
+    public ResponseEntity<List<AntiguedadCarteraDto>> obtenerAntiguedadCartera(
+            @RequestParam(required = false) Long idSucursal
+    ) {
+        return ResponseEntity.ok(this.service.obtenerAntiguedadCartera(idSucursal));
+    }
+}
@@ -3,6 +3,8 @@ package com.boutique.controller;
 import com.boutique.entity.dto.PaginacionDto;
 import com.boutique.entity.dto.PagoDetalleDto;
 import com.boutique.entity.dto.PagoSimpleDto;
+import com.boutique.entity.dto.ResultadoPagoLoteDto;
+import com.boutique.service.PagoLoteService;
 import com.boutique.service.PagoService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -24,6 +26,8 @@ import java.util.List;
 public class PagoController {
     @Autowired
     private PagoService service;
+    @Autowired
+    private PagoLoteService pagoLoteService;
 
     @GetMapping
     public ResponseEntity<PaginacionDto<PagoSimpleDto>> listarPagos(
@@ -64,4 +68,12 @@ public class PagoController {
         PagoSimpleDto pagoCreado = this.service.crearPagoCuota(nuevoPago);
         return ResponseEntity.status(HttpStatus.CREATED).body(pagoCreado);
     }
+
+    @PostMapping("/lote")
+    public ResponseEntity<List<ResultadoPagoLoteDto>> registrarPagosLote(
+            @RequestBody List<PagoSimpleDto> pagos
+    ) {
+        List<ResultadoPagoLoteDto> resultados = this.pagoLoteService.registrarPagosLote(pagos);
+        return ResponseEntity.ok(resultados);
+    }
 }
@@ -1,6 +1,9 @@
 package com.boutique.controller;
 
+import com.boutique.entity.dto.CotizacionCreditoDto;
+import com.boutique.entity.dto.CotizacionCreditoRequest;
 import com.boutique.entity.dto.PlanCreditoDto;
+import com.boutique.service.AmortizacionService;
 import com.boutique.service.PlanCreditoService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -18,6 +21,8 @@ import java.util.List;
 public class PlanCreditoController {
     @Autowired
     private PlanCreditoService service;
+    @Autowired
+    private AmortizacionService amortizacionService;
 
     @GetMapping
     public ResponseEntity<List<PlanCreditoDto>> listarPlanesCredito() {
@@ -39,6 +44,17 @@ public class PlanCreditoController {
         return ResponseEntity.status(HttpStatus.CREATED).body(planCreditoCreado);
     }
 
+    /**
+     * Cotiza uno o varios montos contra los planes de crédito indicados
+     * (o todos los activos), sin crear ninguna venta.
+     */
+    @PostMapping("/cotizar")
+    public ResponseEntity<List<CotizacionCreditoDto>> cotizarPlanesCredito(
+            @RequestBody CotizacionCreditoRequest request
+    ) {
+        return ResponseEntity.ok(amortizacionService.cotizar(request));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<PlanCreditoDto> actualizarPlanCredito(
             @PathVariable Short id,
@@ -1,5 +1,6 @@
 package com.boutique.controller;
 
+import com.boutique.entity.dto.CarteraCreditoDto;
 import com.boutique.entity.dto.ProductoVendidoDTO;
 import com.boutique.entity.dto.ProductoVentaMesDto;
 import com.boutique.entity.dto.VentaEstadisticaDto;
@@ -8,13 +9,17 @@ import com.boutique.entity.enums.*;
 import com.boutique.service.ReporteService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -44,6 +49,36 @@ public class ReporteController {
         return ResponseEntity.ok(reporte);
     }
 
+    /**
+     * Variante del reporte de ventas para rangos grandes: las filas se escriben
+     * en la respuesta a medida que se leen, en CSV o NDJSON (una venta JSON por línea).
+     */
+    @GetMapping("/ventas/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarReporteVentas(
+            @RequestParam(required = false) BigDecimal montoMinimo,
+            @RequestParam(required = false) BigDecimal montoMaximo,
+            @RequestParam(required = false) TipoPago tipoPago,
+            @RequestParam(required = false) EstadoVenta estadoVenta,
+            @RequestParam(required = false) LocalDate desde,
+            @RequestParam(required = false) LocalDate hasta,
+            @RequestParam(required = false) TipoVenta tipoVenta,
+            @RequestParam(defaultValue = "CSV") FormatoReporte formato
+    ) {
+        StreamingResponseBody cuerpo = salida -> this.service.exportarReporteVentas(
+                montoMinimo, montoMaximo, tipoPago, estadoVenta, desde, hasta, tipoVenta,
+                formato, salida
+        );
+
+        boolean esCsv = formato == FormatoReporte.CSV;
+        return ResponseEntity.ok()
+                .contentType(esCsv
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"reporte-ventas." + (esCsv ? "csv" : "ndjson") + "\"")
+                .body(cuerpo);
+    }
+
     @GetMapping("/productos")
     public ResponseEntity<List<ProductoVendidoDTO>> obtenerProductosMasVendidos(
             @RequestParam("desde")
@@ -95,4 +130,12 @@ public class ReporteController {
     ) {
         return ResponseEntity.ok(this.service.obtenerEstadisticasVentasMensuales(idSucursal));
     }
+
+    @GetMapping("/cartera-creditos")
+    public ResponseEntity<CarteraCreditoDto> obtenerCarteraCreditos(
+            @RequestParam(required = false) Long idSucursal,
+            @RequestParam(defaultValue = "12") Integer semanas
+    ) {
+        return ResponseEntity.ok(this.service.generarReporteCarteraCreditos(idSucursal, semanas));
+    }
 }
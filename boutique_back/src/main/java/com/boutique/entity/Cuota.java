@@ -18,8 +18,10 @@ import java.time.LocalDate;
 @Builder
 @Entity
 public class Cuota {
+    // Secuencia con bloques de 50 ids para poder insertar las cuotas en lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cuota_seq")
+    @SequenceGenerator(name = "cuota_seq", sequenceName = "cuota_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -44,4 +46,8 @@ public class Cuota {
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "pago_id")
     private Pago pago;
+
+    // Dos pagos simultáneos de la misma cuota: el segundo falla al confirmar
+    @Version
+    private Long version;
 }
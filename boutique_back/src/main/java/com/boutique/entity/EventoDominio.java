@@ -0,0 +1,68 @@
+package com.boutique.entity;
+
+import com.boutique.entity.enums.EstadoVenta;
+import com.boutique.entity.enums.TipoEventoDominio;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de una venta o de un pago, guardado en la misma transacción que lo
+ * produce (outbox). Después del commit se publica dentro de la aplicación y
+ * fechaProcesado marca que el resumen de ventas ya lo aplicó.
+ * @author GERSON
+ */
+
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "evento_dominio")
+public class EventoDominio {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "evento_dominio_seq")
+    @SequenceGenerator(name = "evento_dominio_seq", sequenceName = "evento_dominio_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TipoEventoDominio tipo;
+
+    @Column(name = "venta_id", nullable = false)
+    private Long idVenta;
+
+    @Column(name = "pago_id")
+    private Long idPago;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, name = "estado_anterior")
+    private EstadoVenta estadoAnterior;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, name = "estado_nuevo")
+    private EstadoVenta estadoNuevo;
+
+    @Column(nullable = false, name = "fecha_creacion")
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_procesado")
+    private LocalDateTime fechaProcesado;
+
+    public static EventoDominio de(
+            TipoEventoDominio tipo, Long idVenta, Long idPago,
+            EstadoVenta estadoAnterior, EstadoVenta estadoNuevo
+    ) {
+        return EventoDominio.builder()
+                .tipo(tipo)
+                .idVenta(idVenta)
+                .idPago(idPago)
+                .estadoAnterior(estadoAnterior)
+                .estadoNuevo(estadoNuevo)
+                .fechaCreacion(LocalDateTime.now())
+                .build();
+    }
+}
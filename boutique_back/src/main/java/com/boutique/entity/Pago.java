@@ -21,8 +21,10 @@ import java.time.LocalTime;
 @Builder
 @Entity
 public class Pago {
+    // Secuencia con bloques de 50 ids para poder insertar los pagos en lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pago_seq")
+    @SequenceGenerator(name = "pago_seq", sequenceName = "pago_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
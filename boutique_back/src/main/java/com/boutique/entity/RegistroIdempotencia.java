@@ -0,0 +1,62 @@
+package com.boutique.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Respuesta entregada a un POST con cabecera Idempotency-Key, por usuario, ruta
+ * y clave, junto al hash del cuerpo que la originó. La caché en memoria
+ * es la que responde las repeticiones; esta tabla sólo permite recuperarla
+ * después de un reinicio.
+ * @author GERSON
+ */
+
+@Getter
+@Setter
+@ToString(exclude = {"cabeceras", "cuerpo", "hashSolicitud"})
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(
+        name = "registro_idempotencia",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_registro_idempotencia",
+                columnNames = {"usuario", "ruta", "clave"}
+        )
+)
+public class RegistroIdempotencia {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String usuario;
+
+    @Column(nullable = false, length = 100)
+    private String ruta;
+
+    @Column(nullable = false, length = 100)
+    private String clave;
+
+    @Column(nullable = false)
+    private Short estado;
+
+    @Column(length = 100, name = "tipo_contenido")
+    private String tipoContenido;
+
+    // Una cabecera por línea, "Nombre: valor"
+    @Column(columnDefinition = "TEXT")
+    private String cabeceras;
+
+    @Column(nullable = false)
+    private byte[] cuerpo;
+
+    @Column(name = "hash_solicitud")
+    private byte[] hashSolicitud;
+
+    @Column(nullable = false, name = "fecha_creacion")
+    private LocalDateTime fechaCreacion;
+}
@@ -0,0 +1,66 @@
+package com.boutique.entity;
+
+import com.boutique.entity.enums.EstadoVenta;
+import com.boutique.entity.enums.TipoPago;
+import com.boutique.entity.enums.TipoVenta;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Resumen diario de unidades e importe vendidos por producto. Se mantiene de forma
+ * incremental al crear, pagar o cancelar ventas, para que los reportes de productos
+ * no tengan que recorrer todas las líneas de detalle_venta.
+ * @author GERSON
+ */
+
+@Getter
+@Setter
+@ToString(exclude = {"producto"})
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(
+        name = "venta_diaria_producto",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_venta_diaria_producto",
+                columnNames = {"producto_id", "sucursal_id", "fecha", "tipo_venta", "tipo_pago", "estado"}
+        )
+)
+public class VentaDiariaProducto {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "producto_id", nullable = false)
+    private Producto producto;
+
+    // 0 cuando la venta no tiene sucursal, para que la clave única no dependa de NULL
+    @Column(name = "sucursal_id", nullable = false)
+    private Long idSucursal;
+
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20, name = "tipo_venta")
+    private TipoVenta tipoVenta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20, name = "tipo_pago")
+    private TipoPago tipoPago;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EstadoVenta estado;
+
+    @Column(nullable = false)
+    private Long cantidad;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal total;
+}
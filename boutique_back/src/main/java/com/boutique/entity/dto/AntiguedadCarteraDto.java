@@ -0,0 +1,27 @@
+package com.boutique.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Cuotas vencidas de una sucursal agrupadas por días de atraso.
+ * @author GERSON
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AntiguedadCarteraDto {
+    private Long idSucursal;
+    private LocalDate fechaCorte;
+    private List<TramoAntiguedadDto> tramos;
+    private long totalCuotas;
+    private BigDecimal totalMonto;
+}
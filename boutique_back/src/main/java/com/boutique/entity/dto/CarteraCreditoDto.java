@@ -0,0 +1,26 @@
+package com.boutique.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * @author GERSON
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CarteraCreditoDto {
+    private LocalDate fechaCorte;
+    private CarteraCreditoResumenDto total;
+    private List<CarteraCreditoResumenDto> porSucursal;
+    private List<CarteraCreditoResumenDto> porPlan;
+    private List<CarteraCreditoResumenDto> porSucursalYPlan;
+    private List<CobranzaSemanalDto> cobranzaSemanal;
+}
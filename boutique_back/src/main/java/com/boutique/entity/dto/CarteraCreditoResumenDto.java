@@ -0,0 +1,27 @@
+package com.boutique.entity.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.math.BigDecimal;
+
+/**
+ * Totales de la cartera de créditos en uno de los niveles de agrupación:
+ * sucursal y plan, sólo sucursal, sólo plan o total general.
+ * @author GERSON
+ */
+
+public interface CarteraCreditoResumenDto {
+    // GROUPING(sucursal, plan): 0 sucursal y plan, 1 sucursal, 2 plan, 3 total
+    @JsonIgnore
+    Integer getNivel();
+    Long getIdSucursal();
+    String getNombreSucursal();
+    Short getIdPlanCredito();
+    String getNombrePlan();
+    Long getCreditos();
+    BigDecimal getMontoTotal();
+    BigDecimal getSaldoPendiente();
+    BigDecimal getMontoCobrado();
+    Long getCuotasPagadas();
+    Long getCuotasPendientes();
+}
@@ -0,0 +1,16 @@
+package com.boutique.entity.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * @author GERSON
+ */
+
+public interface CobranzaSemanalDto {
+    // Lunes de la semana de vencimiento
+    LocalDate getSemana();
+    Long getIdSucursal();
+    Long getCuotas();
+    BigDecimal getMonto();
+}
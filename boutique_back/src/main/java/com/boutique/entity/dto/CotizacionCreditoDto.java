@@ -0,0 +1,35 @@
+package com.boutique.entity.dto;
+
+import com.boutique.entity.enums.Frecuencia;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * @author GERSON
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CotizacionCreditoDto {
+    private BigDecimal monto;
+    private Short idPlanCredito;
+    private String nombrePlan;
+    private Frecuencia frecuencia;
+    private Short plazo;
+    private BigDecimal interesAnual;
+    private BigDecimal tasaPorPeriodo;
+    private BigDecimal interes;
+    private BigDecimal montoTotal;
+    private BigDecimal montoCuota;
+    private LocalDate fechaInicio;
+    // Todas las cuotas son de montoCuota; sólo cambia la fecha de vencimiento
+    private List<LocalDate> fechasVencimiento;
+}
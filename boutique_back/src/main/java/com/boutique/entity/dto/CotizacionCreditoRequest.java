@@ -0,0 +1,27 @@
+package com.boutique.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Montos a cotizar contra uno o varios planes de crédito.
+ * Sin idPlanesCredito se usan todos los planes activos; sin fecha, la de hoy.
+ * @author GERSON
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CotizacionCreditoRequest {
+    private List<BigDecimal> montos;
+    private List<Short> idPlanesCredito;
+    private LocalDate fecha;
+    private Boolean incluirCuotas;
+}
@@ -0,0 +1,10 @@
+package com.boutique.entity.dto;
+
+/**
+ * @author GERSON
+ */
+
+public interface CuotaCreditoDto {
+    Long getIdCuota();
+    Long getIdCredito();
+}
@@ -0,0 +1,39 @@
+package com.boutique.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * @author GERSON
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CuotaVencidaDto {
+    private Long idCuota;
+    private Long idCredito;
+    private Long idVenta;
+    private Long idSucursal;
+    private String clienteNombre;
+    private Short numero;
+    private BigDecimal monto;
+    private LocalDate fechaVencimiento;
+    private Long diasVencida;
+
+    // Usado por la consulta JPQL; diasVencida se calcula al armar la cartera
+    public CuotaVencidaDto(
+            Long idCuota, Long idCredito, Long idVenta, Long idSucursal,
+            String clienteNombre, Short numero, BigDecimal monto,
+            LocalDate fechaVencimiento
+    ) {
+        this(idCuota, idCredito, idVenta, idSucursal, clienteNombre, numero, monto,
+                fechaVencimiento, null);
+    }
+}
@@ -0,0 +1,44 @@
+package com.boutique.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de cada pago de una carga masiva, en la misma posición del pedido.
+ * @author GERSON
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ResultadoPagoLoteDto {
+    private int indice;
+    private Long idPago;
+    private Long idCuota;
+    private Long idVenta;
+    private boolean aplicado;
+    private String error;
+
+    public static ResultadoPagoLoteDto aplicado(int indice, PagoSimpleDto pago, Long idPago) {
+        return ResultadoPagoLoteDto.builder()
+                .indice(indice)
+                .idPago(idPago)
+                .idCuota(pago.getIdCuota())
+                .idVenta(pago.getIdVenta())
+                .aplicado(true)
+                .build();
+    }
+
+    public static ResultadoPagoLoteDto rechazado(int indice, PagoSimpleDto pago, String error) {
+        return ResultadoPagoLoteDto.builder()
+                .indice(indice)
+                .idCuota(pago != null ? pago.getIdCuota() : null)
+                .idVenta(pago != null ? pago.getIdVenta() : null)
+                .aplicado(false)
+                .error(error)
+                .build();
+    }
+}
@@ -0,0 +1,10 @@
+package com.boutique.entity.enums;
+
+/**
+ * @author GERSON
+ */
+
+public enum FormatoReporte {
+    CSV,
+    NDJSON
+}
@@ -0,0 +1,12 @@
+package com.boutique.entity.enums;
+
+/**
+ * @author GERSON
+ */
+
+public enum TipoEventoDominio {
+    VENTA_CREADA,
+    VENTA_COMPLETADA,
+    VENTA_CANCELADA,
+    PAGO_APLICADO
+}
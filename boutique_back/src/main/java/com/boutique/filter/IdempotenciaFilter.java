@@ -0,0 +1,267 @@
+package com.boutique.filter;
+
+import com.boutique.cache.IdempotenciaCache;
+import com.boutique.cache.IdempotenciaCache.ClaveIdempotencia;
+import com.boutique.cache.IdempotenciaCache.RespuestaIdempotente;
+import com.boutique.security.IdentidadInterna;
+import com.boutique.security.JwtUtils;
+import com.boutique.service.RegistroIdempotenciaService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Hace idempotentes los POST de creación de ventas y pagos que traen la cabecera
+ * Idempotency-Key: si el punto de venta reintenta con la misma clave, se devuelve
+ * la respuesta original sin volver a ejecutar la operación.
+ *
+ * La clave vale por usuario (el firmado por el Gateway o el sujeto del JWT), así
+ * que la clave de otro usuario nunca devuelve su respuesta. Con la clave se
+ * guarda el SHA-256 del cuerpo: si se repite la clave con otro cuerpo, se
+ * responde 422 en lugar de la respuesta original.
+ *
+ * Sólo se guardan las respuestas 2xx; si la primera petición falla, la clave se
+ * libera y el reintento se ejecuta normalmente. Mientras la primera petición sigue
+ * en curso, las repeticiones reciben 409.
+ * @author GERSON
+ */
+
+@Component
+public class IdempotenciaFilter extends OncePerRequestFilter {
+    public static final String CABECERA = "Idempotency-Key";
+    public static final String CABECERA_REPETIDA = "Idempotent-Replayed";
+    // Cabeceras de la respuesta que no se guardan: van aparte (Content-Type) o
+    // corresponden a cada envío y no a la operación
+    private static final Set<String> NO_GUARDADAS = cabeceras(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING,
+            HttpHeaders.CONNECTION, HttpHeaders.DATE, HttpHeaders.SET_COOKIE, CABECERA_REPETIDA
+    );
+    private static final int MAX_LONGITUD_CLAVE = 100;
+    private static final String ANONIMO = "";
+
+    private final IdempotenciaCache idempotenciaCache;
+    private final RegistroIdempotenciaService registroService;
+    private final IdentidadInterna identidadInterna;
+    private final JwtUtils jwtUtils;
+    private final Set<String> rutas;
+
+    public IdempotenciaFilter(
+            IdempotenciaCache idempotenciaCache,
+            RegistroIdempotenciaService registroService,
+            IdentidadInterna identidadInterna,
+            JwtUtils jwtUtils,
+            @Value("${idempotencia.rutas}") Set<String> rutas
+    ) {
+        this.idempotenciaCache = idempotenciaCache;
+        this.registroService = registroService;
+        this.identidadInterna = identidadInterna;
+        this.jwtUtils = jwtUtils;
+        this.rutas = rutas;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || request.getHeader(CABECERA) == null
+                || !this.rutas.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        String valor = request.getHeader(CABECERA).strip();
+        if (valor.isEmpty() || valor.length() > MAX_LONGITUD_CLAVE) {
+            response.sendError(
+                    HttpServletResponse.SC_BAD_REQUEST,
+                    "La cabecera " + CABECERA + " debe tener entre 1 y " + MAX_LONGITUD_CLAVE + " caracteres."
+            );
+            return;
+        }
+
+        ClaveIdempotencia clave = new ClaveIdempotencia(usuario(request), request.getRequestURI(), valor);
+        byte[] cuerpo = request.getInputStream().readAllBytes();
+        byte[] hashSolicitud = sha256(cuerpo);
+
+        RespuestaIdempotente existente = this.idempotenciaCache.reservar(clave, hashSolicitud);
+        if (existente != null) {
+            if (!existente.coincide(hashSolicitud)) {
+                response.sendError(
+                        HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                        "La clave de idempotencia ya se usó con una solicitud distinta."
+                );
+                return;
+            }
+            if (existente.isEnProceso()) {
+                response.sendError(
+                        HttpServletResponse.SC_CONFLICT,
+                        "La solicitud con esta clave de idempotencia todavía se está procesando."
+                );
+                return;
+            }
+            response.setStatus(existente.estado());
+            response.setContentType(existente.tipoContenido());
+            // Las que ya puso un filtro anterior en esta respuesta no se duplican
+            existente.cabeceras().forEach((nombre, valores) -> {
+                if (!response.containsHeader(nombre))
+                    valores.forEach(valorCabecera -> response.addHeader(nombre, valorCabecera));
+            });
+            response.setHeader(CABECERA_REPETIDA, "true");
+            response.getOutputStream().write(existente.cuerpo());
+            return;
+        }
+
+        ContentCachingResponseWrapper respuesta = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(new CuerpoLeido(request, cuerpo), respuesta);
+        } catch (IOException | ServletException | RuntimeException e) {
+            this.idempotenciaCache.liberar(clave);
+            throw e;
+        }
+
+        int estado = respuesta.getStatus();
+        if (estado >= 200 && estado < 300) {
+            RespuestaIdempotente guardada = new RespuestaIdempotente(
+                    estado, respuesta.getContentType(), cabecerasGuardadas(respuesta),
+                    respuesta.getContentAsByteArray(), hashSolicitud, LocalDateTime.now()
+            );
+            this.idempotenciaCache.completar(clave, guardada);
+            this.registroService.registrar(clave, guardada);
+        } else {
+            this.idempotenciaCache.liberar(clave);
+        }
+        respuesta.copyBodyToResponse();
+    }
+
+    /**
+     * Usuario que envía la petición: el firmado por el Gateway o el sujeto del
+     * JWT. Sin credenciales válidas la clave queda en el espacio anónimo, y
+     * JwtFilter rechaza después un token inválido.
+     */
+    private String usuario(HttpServletRequest request) {
+        UserDetails verificado = this.identidadInterna.verificar(request);
+        if (verificado != null)
+            return verificado.getUsername();
+
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer "))
+            return ANONIMO;
+        try {
+            String sujeto = this.jwtUtils.parseClaims(authHeader.substring(7)).getSubject();
+            return sujeto != null ? sujeto : ANONIMO;
+        } catch (ResponseStatusException e) {
+            return ANONIMO;
+        }
+    }
+
+    private static HttpHeaders cabecerasGuardadas(HttpServletResponse response) {
+        HttpHeaders cabeceras = new HttpHeaders();
+        for (String nombre : response.getHeaderNames()) {
+            if (!NO_GUARDADAS.contains(nombre))
+                cabeceras.put(nombre, List.copyOf(response.getHeaders(nombre)));
+        }
+        return cabeceras;
+    }
+
+    private static Set<String> cabeceras(String... nombres) {
+        Set<String> cabeceras = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        cabeceras.addAll(List.of(nombres));
+        return Collections.unmodifiableSet(cabeceras);
+    }
+
+    private static byte[] sha256(byte[] contenido) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(contenido);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No se pudo inicializar SHA-256", e);
+        }
+    }
+
+    /**
+     * Petición cuyo cuerpo ya se leyó para calcular el hash; lo entrega de nuevo
+     * desde memoria al resto de la cadena.
+     */
+    private static final class CuerpoLeido extends HttpServletRequestWrapper {
+        private final byte[] cuerpo;
+
+        CuerpoLeido(HttpServletRequest request, byte[] cuerpo) {
+            super(request);
+            this.cuerpo = cuerpo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(this.cuerpo);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] destino, int desde, int cantidad) {
+                    return entrada.read(destino, desde, cantidad);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * El cuerpo ya está en memoria: todo está disponible de inmediato.
+                 */
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String codificacion = getCharacterEncoding();
+            Charset charset = codificacion != null ? Charset.forName(codificacion) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
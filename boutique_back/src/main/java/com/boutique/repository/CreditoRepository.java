@@ -1,8 +1,12 @@
 package com.boutique.repository;
 
 import com.boutique.entity.Credito;
+import com.boutique.entity.dto.CarteraCreditoResumenDto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -11,4 +15,58 @@ import java.util.Optional;
 
 public interface CreditoRepository extends JpaRepository<Credito, Long> {
     Optional<Credito> findByVentaId(Long idVenta);
+
+    /**
+     * Descuenta las cuotas pagadas del saldo en la misma sentencia UPDATE, sin leer el
+     * valor anterior: los pagos concurrentes del mismo crédito se encolan en el
+     * bloqueo de la fila y ninguno pisa al otro.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        UPDATE Credito c
+        SET c.cuotasPagadas = c.cuotasPagadas + :cantidad,
+            c.saldoPendiente = c.saldoPendiente - c.montoCuota * :cantidad
+        WHERE c.id = :idCredito
+    """)
+    int registrarPagosCuotas(Long idCredito, short cantidad);
+
+    @Query("""
+        SELECT c.numeroCuotas - c.cuotasPagadas FROM Credito c
+        WHERE c.id = :idCredito
+    """)
+    int contarCuotasPendientes(Long idCredito);
+
+    /**
+     * Totales de la cartera por sucursal y plan, por sucursal, por plan y en total,
+     * en una sola pasada sobre credito. Las cuotas pagadas y pendientes salen de los
+     * contadores del crédito, sin recorrer la tabla cuota.
+     */
+    @Query(value = """
+        SELECT
+            GROUPING(v.sucursal_id, c.plan_credito_id) AS nivel,
+            v.sucursal_id AS idSucursal,
+            CASE WHEN GROUPING(v.sucursal_id) = 0 THEN MAX(s.nombre) END AS nombreSucursal,
+            c.plan_credito_id AS idPlanCredito,
+            CASE WHEN GROUPING(c.plan_credito_id) = 0 THEN MAX(p.nombre) END AS nombrePlan,
+            COUNT(*) AS creditos,
+            SUM(c.monto_total) AS montoTotal,
+            SUM(c.saldo_pendiente) AS saldoPendiente,
+            SUM(c.monto_total - c.saldo_pendiente) AS montoCobrado,
+            SUM(c.cuotas_pagadas) AS cuotasPagadas,
+            SUM(c.numero_cuotas - c.cuotas_pagadas) AS cuotasPendientes
+        FROM credito c
+        INNER JOIN venta v ON c.venta_id = v.id
+        INNER JOIN plan_credito p ON c.plan_credito_id = p.id
+        LEFT JOIN sucursal s ON v.sucursal_id = s.id
+        WHERE v.estado <> 'CANCELADA'
+        AND (CAST(:idSucursal AS bigint) IS NULL OR v.sucursal_id = :idSucursal)
+        GROUP BY GROUPING SETS (
+            (v.sucursal_id, c.plan_credito_id),
+            (v.sucursal_id),
+            (c.plan_credito_id),
+            ()
+        )
+        ORDER BY nivel, v.sucursal_id, c.plan_credito_id
+    """, nativeQuery = true)
+    List<CarteraCreditoResumenDto> resumirCartera(Long idSucursal);
 }
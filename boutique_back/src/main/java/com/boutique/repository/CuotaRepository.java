@@ -1,9 +1,16 @@
 package com.boutique.repository;
 
 import com.boutique.entity.Cuota;
+import com.boutique.entity.dto.CobranzaSemanalDto;
+import com.boutique.entity.dto.CuotaCreditoDto;
+import com.boutique.entity.dto.CuotaVencidaDto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * @author GERSON
@@ -11,4 +18,75 @@ import java.util.List;
 
 public interface CuotaRepository extends JpaRepository<Cuota, Long> {
     List<Cuota> findByCreditoIdOrderByNumeroAsc(Long idCredito);
+
+    /**
+     * Carga la cuota junto con su crédito y su venta en una sola consulta,
+     * que es todo lo que necesita el registro de un pago.
+     */
+    @Query("""
+        SELECT cu FROM Cuota cu
+        JOIN FETCH cu.credito cr
+        JOIN FETCH cr.venta v
+        WHERE cu.id = :idCuota
+    """)
+    Optional<Cuota> findConCreditoYVentaById(Long idCuota);
+
+    @Query("""
+        SELECT cu FROM Cuota cu
+        JOIN FETCH cu.credito cr
+        JOIN FETCH cr.venta v
+        WHERE cu.id IN :idsCuota
+    """)
+    List<Cuota> findConCreditoYVentaByIdIn(Collection<Long> idsCuota);
+
+    @Query("""
+        SELECT cu.id AS idCuota, cu.credito.id AS idCredito
+        FROM Cuota cu
+        WHERE cu.id IN :idsCuota
+    """)
+    List<CuotaCreditoDto> findCreditosByCuotaIdIn(Collection<Long> idsCuota);
+
+    /**
+     * Cuotas sin pagar vencidas antes de la fecha indicada, de la más antigua a
+     * la más reciente. Recorre el índice parcial idx_cuota_pendiente_vencimiento.
+     */
+    @Query("""
+        SELECT new com.boutique.entity.dto.CuotaVencidaDto(
+            cu.id, cr.id, v.id, v.sucursal.id,
+            CONCAT(c.nombre, ' ', c.apellido),
+            cu.numero, cu.monto, cu.fechaVencimiento
+        )
+        FROM Cuota cu
+        JOIN cu.credito cr
+        JOIN cr.venta v
+        JOIN v.cliente c
+        WHERE cu.pagada = false
+        AND cu.fechaVencimiento < :fecha
+        AND v.estado <> com.boutique.entity.enums.EstadoVenta.CANCELADA
+        ORDER BY cu.fechaVencimiento ASC, cu.id ASC
+    """)
+    List<CuotaVencidaDto> findCuotasVencidas(LocalDate fecha);
+
+    /**
+     * Monto por cobrar por semana de vencimiento y sucursal. Sólo lee cuotas sin
+     * pagar dentro del rango, a través del índice parcial idx_cuota_pendiente_vencimiento.
+     */
+    @Query(value = """
+        SELECT
+            CAST(date_trunc('week', cu.fecha_vencimiento) AS date) AS semana,
+            v.sucursal_id AS idSucursal,
+            COUNT(*) AS cuotas,
+            SUM(cu.monto) AS monto
+        FROM cuota cu
+        INNER JOIN credito c ON cu.credito_id = c.id
+        INNER JOIN venta v ON c.venta_id = v.id
+        WHERE cu.pagada = false
+        AND cu.fecha_vencimiento >= :desde
+        AND cu.fecha_vencimiento < :hasta
+        AND v.estado <> 'CANCELADA'
+        AND (CAST(:idSucursal AS bigint) IS NULL OR v.sucursal_id = :idSucursal)
+        GROUP BY 1, 2
+        ORDER BY 1, 2
+    """, nativeQuery = true)
+    List<CobranzaSemanalDto> sumarCobranzaPorSemana(LocalDate desde, LocalDate hasta, Long idSucursal);
 }
@@ -0,0 +1,60 @@
+package com.boutique.repository;
+
+import com.boutique.entity.EventoDominio;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * @author GERSON
+ */
+
+public interface EventoDominioRepository extends JpaRepository<EventoDominio, Long> {
+    /**
+     * Marca el evento como procesado sólo si nadie lo hizo antes. Si otro hilo lo
+     * está procesando, la sentencia espera su commit y devuelve 0.
+     */
+    @Modifying
+    @Query("""
+        UPDATE EventoDominio e
+        SET e.fechaProcesado = :fecha
+        WHERE e.id = :idEvento
+        AND e.fechaProcesado IS NULL
+    """)
+    int reclamar(Long idEvento, LocalDateTime fecha);
+
+    @Modifying
+    @Query("""
+        UPDATE EventoDominio e
+        SET e.fechaProcesado = :fecha
+        WHERE e.fechaProcesado IS NULL
+    """)
+    int marcarPendientesProcesados(LocalDateTime fecha);
+
+    /**
+     * Bloquea la tabla hasta el fin de la transacción: espera a los que están
+     * reclamando o registrando eventos y no deja entrar a otros mientras tanto.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE evento_dominio IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void bloquear();
+
+    @Query("""
+        SELECT e FROM EventoDominio e
+        WHERE e.fechaProcesado IS NULL
+        AND e.fechaCreacion < :creadosAntesDe
+        ORDER BY e.fechaCreacion
+    """)
+    List<EventoDominio> findPendientes(LocalDateTime creadosAntesDe, Pageable pageable);
+
+    @Modifying
+    @Query("""
+        DELETE FROM EventoDominio e
+        WHERE e.fechaProcesado < :hasta
+    """)
+    int eliminarProcesadosAntesDe(LocalDateTime hasta);
+}
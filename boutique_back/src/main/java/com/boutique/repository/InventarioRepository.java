@@ -4,6 +4,8 @@ import com.boutique.entity.Inventario;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.Optional;
 
@@ -15,4 +17,36 @@ public interface InventarioRepository extends JpaRepository<Inventario, Long> {
     Page<Inventario> findBySucursalId(Long idSucursal, Pageable pageable);
     Page<Inventario> findByProductoId(Long idProducto, Pageable pageable);
     Optional<Inventario> findBySucursalIdAndProductoId(Long idSucursal, Long idProducto);
+
+    @Query("""
+        SELECT i.cantidad FROM Inventario i
+        WHERE i.sucursal.id = :idSucursal
+        AND i.producto.id = :idProducto
+    """)
+    Optional<Integer> findCantidadBySucursalIdAndProductoId(Long idSucursal, Long idProducto);
+
+    /**
+     * Descuenta stock de forma atómica: la condición sobre la cantidad se evalúa
+     * en la misma sentencia, por lo que dos ventas concurrentes no pueden dejar
+     * el inventario en negativo ni pisarse la actualización.
+     * @return Filas afectadas, 0 si no hay stock suficiente o no existe el inventario.
+     */
+    @Modifying
+    @Query("""
+        UPDATE Inventario i
+        SET i.cantidad = i.cantidad - :cantidad
+        WHERE i.sucursal.id = :idSucursal
+        AND i.producto.id = :idProducto
+        AND i.cantidad >= :cantidad
+    """)
+    int descontarStock(Long idSucursal, Long idProducto, Integer cantidad);
+
+    @Modifying
+    @Query("""
+        UPDATE Inventario i
+        SET i.cantidad = i.cantidad + :cantidad
+        WHERE i.sucursal.id = :idSucursal
+        AND i.producto.id = :idProducto
+    """)
+    int reponerStock(Long idSucursal, Long idProducto, Integer cantidad);
 }
@@ -0,0 +1,36 @@
+package com.boutique.repository;
+
+import com.boutique.entity.dto.ProductoVendidoDTO;
+import com.boutique.entity.enums.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * @author GERSON
+ */
+
+public interface ProductoRepositoryCustom {
+    /**
+     * Obtiene productos más vendidos a partir del resumen diario, aplicando sólo
+     * los filtros no nulos y el criterio de orden indicado.
+     */
+    List<ProductoVendidoDTO> findProductosMasVendidos(
+            LocalDate desde,
+            LocalDate hasta,
+            Marca marca,
+            Genero genero,
+            TipoPrenda tipoPrenda,
+            Talla talla,
+            Temporada temporada,
+            Estilo estilo,
+            Material material,
+            Uso uso,
+            TipoVenta tipoVenta,
+            TipoPago tipoPago,
+            EstadoVenta estadoVenta,
+            String ordenarPor,
+            String orden,
+            Integer limite
+    );
+}
@@ -0,0 +1,115 @@
+package com.boutique.repository;
+
+import com.boutique.entity.Producto;
+import com.boutique.entity.VentaDiariaProducto;
+import com.boutique.entity.dto.ProductoVendidoDTO;
+import com.boutique.entity.enums.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Arma la consulta de productos más vendidos con Criteria: cada filtro y el
+ * criterio de orden se agregan únicamente cuando se reciben.
+ * @author GERSON
+ */
+
+public class ProductoRepositoryCustomImpl implements ProductoRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProductoVendidoDTO> findProductosMasVendidos(
+            LocalDate desde, LocalDate hasta,
+            Marca marca, Genero genero, TipoPrenda tipoPrenda, Talla talla,
+            Temporada temporada, Estilo estilo, Material material, Uso uso,
+            TipoVenta tipoVenta, TipoPago tipoPago, EstadoVenta estadoVenta,
+            String ordenarPor, String orden, Integer limite
+    ) {
+        CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<VentaDiariaProducto> resumen = query.from(VentaDiariaProducto.class);
+        Join<VentaDiariaProducto, Producto> producto = resumen.join("producto");
+
+        Expression<Long> cantidadVendida = cb.sum(resumen.<Long>get("cantidad"));
+        Expression<BigDecimal> totalVentas = cb.sum(resumen.<BigDecimal>get("total"));
+
+        List<Predicate> predicados = new ArrayList<>();
+        predicados.add(cb.greaterThanOrEqualTo(resumen.get("fecha"), desde));
+        predicados.add(cb.lessThanOrEqualTo(resumen.get("fecha"), hasta));
+        agregarIgualdad(cb, predicados, producto.get("marca"), marca);
+        agregarIgualdad(cb, predicados, producto.get("genero"), genero);
+        agregarIgualdad(cb, predicados, producto.get("tipoPrenda"), tipoPrenda);
+        agregarIgualdad(cb, predicados, producto.get("talla"), talla);
+        agregarIgualdad(cb, predicados, producto.get("temporada"), temporada);
+        agregarIgualdad(cb, predicados, producto.get("estilo"), estilo);
+        agregarIgualdad(cb, predicados, producto.get("material"), material);
+        agregarIgualdad(cb, predicados, producto.get("uso"), uso);
+        agregarIgualdad(cb, predicados, resumen.get("tipoVenta"), tipoVenta);
+        agregarIgualdad(cb, predicados, resumen.get("tipoPago"), tipoPago);
+        agregarIgualdad(cb, predicados, resumen.get("estado"), estadoVenta);
+
+        query.multiselect(
+                        producto.get("id"),
+                        producto.get("nombre"),
+                        producto.get("marca"),
+                        producto.get("precio"),
+                        cantidadVendida,
+                        totalVentas,
+                        producto.get("genero"),
+                        producto.get("tipoPrenda"),
+                        producto.get("talla")
+                )
+                .where(predicados.toArray(new Predicate[0]))
+                .groupBy(
+                        producto.get("id"), producto.get("nombre"), producto.get("marca"),
+                        producto.get("precio"), producto.get("genero"),
+                        producto.get("tipoPrenda"), producto.get("talla")
+                )
+                .having(cb.notEqual(cantidadVendida, 0L));
+
+        Expression<?> criterio = switch (ordenarPor == null ? "" : ordenarPor) {
+            case "cantidadVendida" -> cantidadVendida;
+            case "precio" -> producto.get("precio");
+            case "totalVentas" -> totalVentas;
+            default -> null;
+        };
+        if (criterio != null)
+            query.orderBy("ASC".equalsIgnoreCase(orden) ? cb.asc(criterio) : cb.desc(criterio));
+
+        return this.entityManager.createQuery(query)
+                .setMaxResults(limite)
+                .getResultList()
+                .stream()
+                .map(this::aDto)
+                .toList();
+    }
+
+    private static void agregarIgualdad(
+            CriteriaBuilder cb, List<Predicate> predicados, Path<?> campo, Object valor
+    ) {
+        if (valor != null)
+            predicados.add(cb.equal(campo, valor));
+    }
+
+    private ProductoVendidoDTO aDto(Tuple fila) {
+        Talla talla = fila.get(8, Talla.class);
+        return ProductoVendidoDTO.builder()
+                .productoId(fila.get(0, Long.class))
+                .productoNombre(fila.get(1, String.class))
+                .marca(fila.get(2, Marca.class).name())
+                .precio(fila.get(3, BigDecimal.class))
+                .cantidadVendida(fila.get(4, Long.class).intValue())
+                .totalVentas(fila.get(5, BigDecimal.class))
+                .genero(fila.get(6, Genero.class).name())
+                .tipoPrenda(fila.get(7, TipoPrenda.class).name())
+                .talla(talla != null ? talla.name() : null)
+                .build();
+    }
+}
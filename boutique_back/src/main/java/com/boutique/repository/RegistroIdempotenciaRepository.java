@@ -0,0 +1,40 @@
+package com.boutique.repository;
+
+import com.boutique.entity.RegistroIdempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * @author GERSON
+ */
+
+public interface RegistroIdempotenciaRepository extends JpaRepository<RegistroIdempotencia, Long> {
+    /**
+     * Inserta la respuesta si la clave todavía no estaba registrada para el
+     * usuario y la ruta.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO registro_idempotencia
+            (usuario, ruta, clave, estado, tipo_contenido, cabeceras, cuerpo, hash_solicitud, fecha_creacion)
+        VALUES (:usuario, :ruta, :clave, :estado, :tipoContenido, :cabeceras, :cuerpo, :hashSolicitud, :fechaCreacion)
+        ON CONFLICT (usuario, ruta, clave) DO NOTHING
+    """, nativeQuery = true)
+    int registrar(
+            String usuario, String ruta, String clave, short estado, String tipoContenido,
+            String cabeceras, byte[] cuerpo, byte[] hashSolicitud, LocalDateTime fechaCreacion
+    );
+
+    List<RegistroIdempotencia> findByFechaCreacionAfter(LocalDateTime desde);
+
+    @Modifying
+    @Query("""
+        DELETE FROM RegistroIdempotencia r
+        WHERE r.fechaCreacion < :hasta
+    """)
+    int eliminarAnterioresA(LocalDateTime hasta);
+}
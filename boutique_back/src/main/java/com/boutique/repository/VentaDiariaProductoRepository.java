@@ -0,0 +1,62 @@
+package com.boutique.repository;
+
+import com.boutique.entity.VentaDiariaProducto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+/**
+ * @author GERSON
+ */
+
+public interface VentaDiariaProductoRepository extends JpaRepository<VentaDiariaProducto, Long> {
+    /**
+     * Suma (signo = 1) o resta (signo = -1) las líneas de una venta en el resumen
+     * diario bajo el estado indicado, en una sola sentencia.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+        INSERT INTO venta_diaria_producto
+            (producto_id, sucursal_id, fecha, tipo_venta, tipo_pago, estado, cantidad, total)
+        SELECT
+            dv.producto_id,
+            COALESCE(v.sucursal_id, 0),
+            v.fecha,
+            v.tipo_venta,
+            v.tipo_pago,
+            :estado,
+            :signo * SUM(dv.cantidad),
+            :signo * SUM(dv.sub_total)
+        FROM detalle_venta dv
+        INNER JOIN venta v ON dv.venta_id = v.id
+        WHERE v.id = :idVenta
+        GROUP BY dv.producto_id, v.sucursal_id, v.fecha, v.tipo_venta, v.tipo_pago
+        ON CONFLICT (producto_id, sucursal_id, fecha, tipo_venta, tipo_pago, estado)
+        DO UPDATE SET
+            cantidad = venta_diaria_producto.cantidad + EXCLUDED.cantidad,
+            total = venta_diaria_producto.total + EXCLUDED.total
+    """, nativeQuery = true)
+    int acumularVenta(Long idVenta, String estado, int signo);
+
+    /**
+     * Recalcula el resumen completo a partir de las ventas existentes.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO venta_diaria_producto
+            (producto_id, sucursal_id, fecha, tipo_venta, tipo_pago, estado, cantidad, total)
+        SELECT
+            dv.producto_id,
+            COALESCE(v.sucursal_id, 0),
+            v.fecha,
+            v.tipo_venta,
+            v.tipo_pago,
+            v.estado,
+            SUM(dv.cantidad),
+            SUM(dv.sub_total)
+        FROM detalle_venta dv
+        INNER JOIN venta v ON dv.venta_id = v.id
+        GROUP BY dv.producto_id, v.sucursal_id, v.fecha, v.tipo_venta, v.tipo_pago, v.estado
+    """, nativeQuery = true)
+    int reconstruir();
+}
@@ -2,52 +2,75 @@ package com.boutique.repository;
 
 import com.boutique.entity.Venta;
 import com.boutique.entity.dto.VentaEstadisticaDto;
+import com.boutique.entity.dto.VentaSimpleDto;
 import com.boutique.entity.enums.EstadoVenta;
-import com.boutique.entity.enums.TipoPago;
-import com.boutique.entity.enums.TipoVenta;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * @author GERSON
  */
 
-public interface VentaRepository extends JpaRepository<Venta, Long> {
-    @Query("""
-        SELECT v FROM Venta v
+public interface VentaRepository extends JpaRepository<Venta, Long>, VentaRepositoryCustom {
+    /**
+     * Las consultas de listado devuelven directamente el DTO con el nombre del
+     * cliente resuelto en el mismo JOIN, así una página no dispara una consulta
+     * extra por cada cliente (relación LAZY + herencia JOINED de Persona).
+     */
+    @Query(value = """
+        SELECT new com.boutique.entity.dto.VentaSimpleDto(
+            v.id, v.fecha, v.hora, v.total, v.tipoVenta, v.tipoPago, v.estado,
+            CONCAT(c.nombre, ' ', c.apellido)
+        )
+        FROM Venta v
+        JOIN v.cliente c
+        WHERE v.estado = :estado
+        AND (:idSucursal IS NULL OR v.sucursal.id = :idSucursal)
+    """, countQuery = """
+        SELECT COUNT(v) FROM Venta v
         WHERE v.estado = :estado
         AND (:idSucursal IS NULL OR v.sucursal.id = :idSucursal)
     """)
-    Page<Venta> findVentas(EstadoVenta estado, Long idSucursal, Pageable pageable);
-    Page<Venta> findByClienteId(Long idCliente, Pageable pageable);
+    Page<VentaSimpleDto> findVentas(EstadoVenta estado, Long idSucursal, Pageable pageable);
 
+    @Query(value = """
+        SELECT new com.boutique.entity.dto.VentaSimpleDto(
+            v.id, v.fecha, v.hora, v.total, v.tipoVenta, v.tipoPago, v.estado,
+            CONCAT(c.nombre, ' ', c.apellido)
+        )
+        FROM Venta v
+        JOIN v.cliente c
+        WHERE c.id = :idCliente
+    """, countQuery = """
+        SELECT COUNT(v) FROM Venta v
+        WHERE v.cliente.id = :idCliente
+    """)
+    Page<VentaSimpleDto> findByClienteId(Long idCliente, Pageable pageable);
+
+    /**
+     * Venta con todo lo que muestra su pantalla de detalle (cliente, sucursal,
+     * líneas con su producto, crédito y plan) en una sola consulta. Las cuotas se
+     * leen aparte para no multiplicar las filas de las líneas por las cuotas.
+     */
     @Query("""
-        SELECT v FROM Venta v
-        WHERE (:estado IS NULL OR v.estado = :estado)
-        AND (:idSucursal IS NULL OR v.sucursal.id = :idSucursal)
-        AND (:tipoPago IS NULL OR v.tipoPago = :tipoPago)
-        AND (CAST(:fechaDesde AS LocalDate) IS NULL OR v.fecha >= :fechaDesde)
-        AND (CAST(:fechaHasta AS LocalDate) IS NULL OR v.fecha <= :fechaHasta)
-        AND (CAST(:montoMinimo AS BigDecimal) IS NULL OR v.total >= :montoMinimo)
-        AND (CAST(:montoMaximo AS BigDecimal) IS NULL OR v.total <= :montoMaximo)
-        AND (:tipoVenta IS NULL OR v.tipoVenta = :tipoVenta)
+        SELECT DISTINCT v FROM Venta v
+        JOIN FETCH v.cliente c
+        LEFT JOIN FETCH c.usuario
+        LEFT JOIN FETCH v.sucursal
+        LEFT JOIN FETCH v.detalles d
+        LEFT JOIN FETCH d.producto
+        LEFT JOIN FETCH v.credito cr
+        LEFT JOIN FETCH cr.planCredito
+        WHERE v.id = :idVenta
+        ORDER BY d.id
     """)
-    List<Venta> findVentasConFiltros(
-            EstadoVenta estado,
-            Long idSucursal,
-            TipoPago tipoPago,
-            LocalDate fechaDesde,
-            LocalDate fechaHasta,
-            BigDecimal montoMinimo,
-            BigDecimal montoMaximo,
-            TipoVenta tipoVenta
-    );
+    Optional<Venta> findDetalleById(Long idVenta);
 
     @Query("""
         SELECT 
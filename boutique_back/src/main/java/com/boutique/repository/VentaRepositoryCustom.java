@@ -0,0 +1,45 @@
+package com.boutique.repository;
+
+import com.boutique.entity.dto.VentaSimpleDto;
+import com.boutique.entity.enums.EstadoVenta;
+import com.boutique.entity.enums.TipoPago;
+import com.boutique.entity.enums.TipoVenta;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * @author GERSON
+ */
+
+public interface VentaRepositoryCustom {
+    List<VentaSimpleDto> findVentasConFiltros(
+            EstadoVenta estado,
+            Long idSucursal,
+            TipoPago tipoPago,
+            LocalDate fechaDesde,
+            LocalDate fechaHasta,
+            BigDecimal montoMinimo,
+            BigDecimal montoMaximo,
+            TipoVenta tipoVenta
+    );
+
+    /**
+     * Misma consulta que findVentasConFiltros, ordenada por id y recorrida con un
+     * cursor: PostgreSQL entrega las filas de a 500 y, al ser un DTO, nada queda
+     * retenido en el contexto de persistencia. Debe consumirse dentro de una
+     * transacción y cerrarse al terminar.
+     */
+    Stream<VentaSimpleDto> streamVentasConFiltros(
+            EstadoVenta estado,
+            Long idSucursal,
+            TipoPago tipoPago,
+            LocalDate fechaDesde,
+            LocalDate fechaHasta,
+            BigDecimal montoMinimo,
+            BigDecimal montoMaximo,
+            TipoVenta tipoVenta
+    );
+}
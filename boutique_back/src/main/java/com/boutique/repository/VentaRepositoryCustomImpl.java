@@ -0,0 +1,102 @@
+package com.boutique.repository;
+
+import com.boutique.entity.Cliente;
+import com.boutique.entity.Venta;
+import com.boutique.entity.dto.VentaSimpleDto;
+import com.boutique.entity.enums.EstadoVenta;
+import com.boutique.entity.enums.TipoPago;
+import com.boutique.entity.enums.TipoVenta;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.HibernateHints;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Construye el listado filtrado de ventas con Criteria, emitiendo sólo las
+ * condiciones de los filtros recibidos.
+ * @author GERSON
+ */
+
+public class VentaRepositoryCustomImpl implements VentaRepositoryCustom {
+    private static final int FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<VentaSimpleDto> findVentasConFiltros(
+            EstadoVenta estado, Long idSucursal, TipoPago tipoPago,
+            LocalDate fechaDesde, LocalDate fechaHasta,
+            BigDecimal montoMinimo, BigDecimal montoMaximo, TipoVenta tipoVenta
+    ) {
+        return this.crearConsulta(
+                estado, idSucursal, tipoPago, fechaDesde, fechaHasta,
+                montoMinimo, montoMaximo, tipoVenta, false
+        ).getResultList();
+    }
+
+    @Override
+    public Stream<VentaSimpleDto> streamVentasConFiltros(
+            EstadoVenta estado, Long idSucursal, TipoPago tipoPago,
+            LocalDate fechaDesde, LocalDate fechaHasta,
+            BigDecimal montoMinimo, BigDecimal montoMaximo, TipoVenta tipoVenta
+    ) {
+        return this.crearConsulta(
+                        estado, idSucursal, tipoPago, fechaDesde, fechaHasta,
+                        montoMinimo, montoMaximo, tipoVenta, true
+                )
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private TypedQuery<VentaSimpleDto> crearConsulta(
+            EstadoVenta estado, Long idSucursal, TipoPago tipoPago,
+            LocalDate fechaDesde, LocalDate fechaHasta,
+            BigDecimal montoMinimo, BigDecimal montoMaximo, TipoVenta tipoVenta,
+            boolean ordenarPorId
+    ) {
+        CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<VentaSimpleDto> query = cb.createQuery(VentaSimpleDto.class);
+        Root<Venta> venta = query.from(Venta.class);
+        Join<Venta, Cliente> cliente = venta.join("cliente");
+
+        List<Predicate> predicados = new ArrayList<>();
+        if (estado != null)
+            predicados.add(cb.equal(venta.get("estado"), estado));
+        if (idSucursal != null)
+            predicados.add(cb.equal(venta.get("sucursal").get("id"), idSucursal));
+        if (tipoPago != null)
+            predicados.add(cb.equal(venta.get("tipoPago"), tipoPago));
+        if (fechaDesde != null)
+            predicados.add(cb.greaterThanOrEqualTo(venta.get("fecha"), fechaDesde));
+        if (fechaHasta != null)
+            predicados.add(cb.lessThanOrEqualTo(venta.get("fecha"), fechaHasta));
+        if (montoMinimo != null)
+            predicados.add(cb.greaterThanOrEqualTo(venta.get("total"), montoMinimo));
+        if (montoMaximo != null)
+            predicados.add(cb.lessThanOrEqualTo(venta.get("total"), montoMaximo));
+        if (tipoVenta != null)
+            predicados.add(cb.equal(venta.get("tipoVenta"), tipoVenta));
+
+        query.select(cb.construct(
+                        VentaSimpleDto.class,
+                        venta.get("id"), venta.get("fecha"), venta.get("hora"),
+                        venta.get("total"), venta.get("tipoVenta"), venta.get("tipoPago"),
+                        venta.get("estado"),
+                        cb.concat(cb.concat(cliente.get("nombre"), " "), cliente.get("apellido"))
+                ))
+                .where(predicados.toArray(new Predicate[0]));
+        if (ordenarPorId)
+            query.orderBy(cb.asc(venta.get("id")));
+
+        return this.entityManager.createQuery(query);
+    }
+}
@@ -0,0 +1,43 @@
+package com.boutique.repository.specification;
+
+import com.boutique.entity.Producto;
+import com.boutique.entity.enums.*;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filtros del buscador de productos. Sólo se agrega al WHERE la condición de los
+ * parámetros que llegan con valor, así PostgreSQL planifica cada combinación
+ * con los índices que correspondan en lugar de un plan genérico.
+ * @author GERSON
+ */
+
+public final class ProductoSpecification {
+    private ProductoSpecification() {
+    }
+
+    public static Specification<Producto> filtrar(
+            Marca marca, Genero genero, TipoPrenda tipoPrenda,
+            Talla talla, Temporada temporada, Uso uso
+    ) {
+        return (root, query, cb) -> {
+            List<Predicate> predicados = new ArrayList<>();
+            if (marca != null)
+                predicados.add(cb.equal(root.get("marca"), marca));
+            if (genero != null)
+                predicados.add(cb.equal(root.get("genero"), genero));
+            if (tipoPrenda != null)
+                predicados.add(cb.equal(root.get("tipoPrenda"), tipoPrenda));
+            if (talla != null)
+                predicados.add(cb.equal(root.get("talla"), talla));
+            if (temporada != null)
+                predicados.add(cb.equal(root.get("temporada"), temporada));
+            if (uso != null)
+                predicados.add(cb.equal(root.get("uso"), uso));
+            return cb.and(predicados.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package com.boutique.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Identidad que el Gateway ya verificó en el JWT y envía firmada en headers.
+ *
+ * Sólo se acepta si la firma HMAC-SHA256 (con el secreto compartido
+ * identidad-interna.secreto) coincide con usuario, rol, instante, método y ruta
+ * de esta petición, y si no es más vieja que identidad-interna.vigencia. En
+ * cualquier otro caso JwtFilter valida el token como si la petición llegara
+ * directamente, sin pasar por el Gateway.
+ * @author GERSON
+ */
+
+@Component
+public class IdentidadInterna {
+    public static final String HEADER_USUARIO = "X-Identidad-Usuario";
+    public static final String HEADER_ROL = "X-Identidad-Rol";
+    public static final String HEADER_FECHA = "X-Identidad-Fecha";
+    public static final String HEADER_FIRMA = "X-Identidad-Firma";
+
+    private static final String ALGORITMO = "HmacSHA256";
+
+    @Value("${identidad-interna.secreto}")
+    private String secreto;
+
+    @Value("${identidad-interna.vigencia:PT30S}")
+    private Duration vigencia;
+
+    private SecretKeySpec clave;
+    // Mac no es thread-safe; una instancia por hilo
+    private ThreadLocal<Mac> macs;
+
+    @PostConstruct
+    void init() {
+        this.clave = new SecretKeySpec(this.secreto.getBytes(StandardCharsets.UTF_8), ALGORITMO);
+        this.macs = ThreadLocal.withInitial(this::nuevoMac);
+    }
+
+    /**
+     * @return El usuario firmado por el Gateway, o null si la petición no trae
+     * una identidad válida y vigente.
+     */
+    public UserDetails verificar(HttpServletRequest request) {
+        String usuario = request.getHeader(HEADER_USUARIO);
+        String rol = request.getHeader(HEADER_ROL);
+        String fecha = request.getHeader(HEADER_FECHA);
+        String firma = request.getHeader(HEADER_FIRMA);
+        if (usuario == null || rol == null || fecha == null || firma == null)
+            return null;
+
+        long instante;
+        try {
+            instante = Long.parseLong(fecha);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (Math.abs(System.currentTimeMillis() - instante) > this.vigencia.toMillis())
+            return null;
+
+        String contenido = usuario + '\n' + rol + '\n' + instante + '\n'
+                + request.getMethod() + '\n' + request.getRequestURI();
+        byte[] esperada = this.macs.get().doFinal(contenido.getBytes(StandardCharsets.UTF_8));
+        byte[] recibida;
+        try {
+            recibida = Base64.getUrlDecoder().decode(firma);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(esperada, recibida))
+            return null;
+
+        // Mismas authorities que CustomUserDetailsService, sin consultar la BD
+        return new User(usuario, "", List.of(new SimpleGrantedAuthority(rol)));
+    }
+
+    private Mac nuevoMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(this.clave);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo inicializar " + ALGORITMO, e);
+        }
+    }
+}
@@ -5,7 +5,9 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -15,6 +17,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 /**
+ * Autentica la petición con la identidad firmada por el Gateway y, si no la
+ * trae o no es válida (llamadas directas al backend), con el JWT.
  * @author GERSON
  */
 
@@ -23,10 +27,15 @@ public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
     private final CustomUserDetailsService userDetailsService;
+    private final IdentidadInterna identidadInterna;
 
-    public JwtFilter(JwtUtils jwtUtils, CustomUserDetailsService userDetailsService) {
+    public JwtFilter(
+            JwtUtils jwtUtils, CustomUserDetailsService userDetailsService,
+            IdentidadInterna identidadInterna
+    ) {
         this.jwtUtils = jwtUtils;
         this.userDetailsService = userDetailsService;
+        this.identidadInterna = identidadInterna;
     }
 
     @Override
@@ -34,6 +43,14 @@ public class JwtFilter extends OncePerRequestFilter {
             HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
 
+        // El Gateway ya verificó el token: no se valida otra vez ni se carga el usuario
+        UserDetails verificado = identidadInterna.verificar(request);
+        if (verificado != null) {
+            autenticar(verificado, request);
+            chain.doFilter(request, response);
+            return;
+        }
+
         final String authHeader = request.getHeader("Authorization");
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             chain.doFilter(request, response);
@@ -41,19 +58,31 @@ public class JwtFilter extends OncePerRequestFilter {
         }
 
         String token = authHeader.substring(7);
-        String username = jwtUtils.extractUsername(token);
+        // Una sola verificación de firma por token; valida y entrega los claims
+        String username = jwtUtils.parseClaims(token).getSubject();
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (username != null && sinAutenticar()) {
             UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtUtils.validateToken(token)) {
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+            autenticar(userDetails, request);
         }
 
         chain.doFilter(request, response);
     }
+
+    /**
+     * Este filtro corre después de la cadena de Spring Security, que ya dejó una
+     * autenticación anónima en el contexto.
+     */
+    private static boolean sinAutenticar() {
+        Authentication actual = SecurityContextHolder.getContext().getAuthentication();
+        return actual == null || actual instanceof AnonymousAuthenticationToken;
+    }
+
+    private static void autenticar(UserDetails userDetails, HttpServletRequest request) {
+        UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities());
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
 }
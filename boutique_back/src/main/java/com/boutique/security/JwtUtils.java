@@ -1,9 +1,15 @@
 package com.boutique.security;
 
 import com.boutique.entity.Usuario;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
@@ -11,6 +17,7 @@ import org.springframework.web.server.ResponseStatusException;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Date;
 
 /**
@@ -27,11 +34,34 @@ public class JwtUtils {
 
     private long refreshExpiration; // en milisegundos
 
-    private SecretKey getSigningKey() {
+    private static final int MAX_TOKENS = 10_000;
+    // Para tokens sin fecha de expiración
+    private static final Duration TTL_SIN_EXPIRACION = Duration.ofMinutes(15);
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Tokens ya verificados; cada entrada vive hasta la expiración del token
+    private final Cache<String, Claims> tokensVerificados = Caffeine.newBuilder()
+            .maximumSize(MAX_TOKENS)
+            .expireAfter(Expiry.<String, Claims>creating(
+                    (token, claims) -> tiempoHastaExpirar(claims)
+            ))
+            .build();
+
+    @PostConstruct
+    void init() {
         // Para HS256/HS384/HS512: la clave debe ser lo
         // suficientemente larga (p. ej., 32+ bytes para HS256,
         // 64+ bytes para HS512).
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(this.signingKey)
+                .build();
+    }
+
+    private SecretKey getSigningKey() {
+        return this.signingKey;
     }
 
     // Crear Access Token
@@ -67,25 +97,45 @@ public class JwtUtils {
             return usuario.getId();
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Verifica la firma y la expiración del token una sola vez y devuelve sus claims.
+     * Los tokens ya verificados se sirven desde memoria hasta que expiran.
+     * @param token El token JWT.
+     * @return Los claims verificados del token.
+     */
+    public Claims parseClaims(String token) {
+        Claims claims = this.tokensVerificados.getIfPresent(token);
+        if (claims != null && !estaExpirado(claims))
+            return claims;
+
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (JwtException e) {
+            claims = this.parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Token inválido o expirado");
         }
+        this.tokensVerificados.put(token, claims);
+        return claims;
+    }
+
+    public boolean validateToken(String token) {
+        this.parseClaims(token);
+        return true;
     }
 
     public String extractUsername(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return this.parseClaims(token).getSubject();
     }
 
+    private static boolean estaExpirado(Claims claims) {
+        Date expiracion = claims.getExpiration();
+        return expiracion != null && expiracion.getTime() <= System.currentTimeMillis();
+    }
+
+    private static Duration tiempoHastaExpirar(Claims claims) {
+        Date expiracion = claims.getExpiration();
+        if (expiracion == null)
+            return TTL_SIN_EXPIRACION;
+        long restante = expiracion.getTime() - System.currentTimeMillis();
+        return Duration.ofMillis(Math.max(restante, 0));
+    }
 }
@@ -0,0 +1,23 @@
+package com.boutique.service;
+
+import com.boutique.entity.dto.CotizacionCreditoDto;
+import com.boutique.entity.dto.CotizacionCreditoRequest;
+import com.boutique.entity.enums.Frecuencia;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * @author GERSON
+ */
+
+public interface AmortizacionService {
+    List<CotizacionCreditoDto> cotizar(CotizacionCreditoRequest request);
+    BigDecimal calcularMontoTotal(
+            BigDecimal totalVenta, BigDecimal interesAnual, Frecuencia frecuencia, Short plazo
+    );
+    BigDecimal calcularMontoCuota(BigDecimal montoTotal, Short plazo);
+    LocalDate calcularFechaInicio(LocalDate fechaVenta);
+    LocalDate siguienteFechaVencimiento(LocalDate fechaActual, Frecuencia frecuencia);
+}
@@ -0,0 +1,20 @@
+package com.boutique.service;
+
+import com.boutique.entity.dto.AntiguedadCarteraDto;
+import com.boutique.entity.dto.CuotaVencidaDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * @author GERSON
+ */
+
+public interface CobranzaService {
+    Page<CuotaVencidaDto> listarCuotasVencidas(Long idSucursal, Pageable pageable);
+    List<AntiguedadCarteraDto> obtenerAntiguedadCartera(Long idSucursal);
+    void registrarPagoCuota(Long idCuota);
+    void registrarCancelacionVenta(Long idVenta);
+    void recalcularCartera();
+}
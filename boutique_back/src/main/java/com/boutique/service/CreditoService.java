@@ -1,5 +1,6 @@
 package com.boutique.service;
 
+import com.boutique.entity.Credito;
 import com.boutique.entity.Venta;
 import com.boutique.entity.dto.CreditoDto;
 
@@ -11,6 +12,7 @@ import java.math.BigDecimal;
 
 public interface CreditoService {
     CreditoDto obtenerCreditoPorVenta(Long idVenta);
+    CreditoDto obtenerCreditoConCuotas(Credito credito);
     void crearCreditoParaVenta(Venta venta, Short idPlanCredito);
-    void actualizarSaldoCreditoDespuesDePago(Long idCredito);
+    void actualizarSaldoCreditoDespuesDePago(Credito credito, int cuotasPagadas);
 }
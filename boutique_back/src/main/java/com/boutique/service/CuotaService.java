@@ -1,11 +1,14 @@
 package com.boutique.service;
 
 import com.boutique.entity.Credito;
+import com.boutique.entity.Cuota;
 import com.boutique.entity.Pago;
 import com.boutique.entity.dto.CuotaDto;
 import com.boutique.entity.enums.Frecuencia;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author GERSON
@@ -15,4 +18,7 @@ public interface CuotaService {
     List<CuotaDto> listarCuotasPorCredito(Long idCredito);
     void generarCuotasParaCredito(Credito credito, Frecuencia frecuencia);
     void actualizarEstadoCuotaDespuesDePago(Long idCuota, Pago pago);
+    Map<Long, Long> obtenerCreditosPorCuota(Collection<Long> idsCuota);
+    List<Cuota> obtenerCuotasParaPago(Collection<Long> idsCuota);
+    void actualizarEstadoCuotasDespuesDePago(Credito credito, List<Cuota> cuotas, List<Pago> pagos);
 }
@@ -1,5 +1,6 @@
 package com.boutique.service;
 
+import com.boutique.cache.UsuarioCache;
 import com.boutique.entity.Usuario;
 import com.boutique.repository.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,9 +22,15 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Autowired
     private UsuarioRepository usuarioRepository;
+    @Autowired
+    private UsuarioCache usuarioCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return this.usuarioCache.obtener(username, this::cargarUsuario);
+    }
+
+    private UserDetails cargarUsuario(String username) {
         Usuario usuario = usuarioRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException(
                         "Usuario no encontrado con username: " + username)
@@ -0,0 +1,16 @@
+package com.boutique.service;
+
+import com.boutique.entity.EventoDominio;
+
+import java.util.List;
+
+/**
+ * @author GERSON
+ */
+
+public interface EventoDominioService {
+    void publicar(EventoDominio evento);
+    void publicarTodos(List<EventoDominio> eventos);
+    void reenviarPendientes();
+    void eliminarProcesados();
+}
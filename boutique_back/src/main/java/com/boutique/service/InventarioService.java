@@ -5,6 +5,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author GERSON
@@ -19,5 +20,8 @@ public interface InventarioService {
     InventarioDto crearInventario(InventarioDto nuevoInventario);
     InventarioDto actualizarInventario(Long id, InventarioDto inventarioDto);
     Integer getStockPorSucursalYProducto(Long idSucursal, Long idProducto);
+    boolean descontarStock(Long idSucursal, Long idProducto, Integer cantidad);
+    void reservarStock(Long idSucursal, Map<Long, Integer> cantidadesPorProducto);
+    void reponerStock(Long idSucursal, Map<Long, Integer> cantidadesPorProducto);
     void eliminarInventario(Long id);
 }
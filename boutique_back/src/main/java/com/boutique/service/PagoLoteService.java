@@ -0,0 +1,14 @@
+package com.boutique.service;
+
+import com.boutique.entity.dto.PagoSimpleDto;
+import com.boutique.entity.dto.ResultadoPagoLoteDto;
+
+import java.util.List;
+
+/**
+ * @author GERSON
+ */
+
+public interface PagoLoteService {
+    List<ResultadoPagoLoteDto> registrarPagosLote(List<PagoSimpleDto> pagos);
+}
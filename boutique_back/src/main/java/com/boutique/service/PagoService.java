@@ -2,10 +2,12 @@ package com.boutique.service;
 
 import com.boutique.entity.dto.PagoDetalleDto;
 import com.boutique.entity.dto.PagoSimpleDto;
+import com.boutique.entity.dto.ResultadoPagoLoteDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author GERSON
@@ -16,4 +18,5 @@ public interface PagoService {
     PagoDetalleDto obtenerPagoPorId(Long idPago);
     PagoSimpleDto crearPagoVenta(PagoSimpleDto nuevoPago);
     PagoSimpleDto crearPagoCuota(PagoSimpleDto nuevoPago);
+    List<ResultadoPagoLoteDto> crearPagosCuotasCredito(Map<Integer, PagoSimpleDto> pagosCuota);
 }
@@ -0,0 +1,14 @@
+package com.boutique.service;
+
+import com.boutique.cache.IdempotenciaCache.ClaveIdempotencia;
+import com.boutique.cache.IdempotenciaCache.RespuestaIdempotente;
+
+/**
+ * @author GERSON
+ */
+
+public interface RegistroIdempotenciaService {
+    void registrar(ClaveIdempotencia clave, RespuestaIdempotente respuesta);
+    void precargarCache();
+    void eliminarVencidos();
+}
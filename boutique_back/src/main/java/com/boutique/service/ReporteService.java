@@ -1,11 +1,14 @@
 package com.boutique.service;
 
+import com.boutique.entity.dto.CarteraCreditoDto;
 import com.boutique.entity.dto.ProductoVendidoDTO;
 import com.boutique.entity.dto.ProductoVentaMesDto;
 import com.boutique.entity.dto.VentaEstadisticaDto;
 import com.boutique.entity.dto.VentaSimpleDto;
 import com.boutique.entity.enums.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
@@ -20,6 +23,12 @@ public interface ReporteService {
             EstadoVenta estadoVenta, LocalDate desde, LocalDate hasta, TipoVenta tipoVenta
     );
 
+    void exportarReporteVentas(
+            BigDecimal montoMinimo, BigDecimal montoMaximo, TipoPago tipoPago,
+            EstadoVenta estadoVenta, LocalDate desde, LocalDate hasta, TipoVenta tipoVenta,
+            FormatoReporte formato, OutputStream salida
+    ) throws IOException;
+
     List<ProductoVendidoDTO> generarReporteProductosVendidos(
             LocalDate desde,
             LocalDate hasta,
@@ -45,4 +54,6 @@ public interface ReporteService {
     );
 
     List<VentaEstadisticaDto> obtenerEstadisticasVentasMensuales(Long idSucursal);
+
+    CarteraCreditoDto generarReporteCarteraCreditos(Long idSucursal, Integer semanas);
 }
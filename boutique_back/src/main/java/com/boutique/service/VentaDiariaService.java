@@ -0,0 +1,15 @@
+package com.boutique.service;
+
+import com.boutique.entity.EventoDominio;
+import com.boutique.entity.enums.EstadoVenta;
+
+/**
+ * @author GERSON
+ */
+
+public interface VentaDiariaService {
+    void registrarVenta(Long idVenta, EstadoVenta estado);
+    void cambiarEstadoVenta(Long idVenta, EstadoVenta estadoAnterior, EstadoVenta estadoNuevo);
+    void reconstruirResumen();
+    void procesarEvento(EventoDominio evento);
+}
@@ -0,0 +1,285 @@
+package com.boutique.service.impl;
+
+import com.boutique.entity.dto.CotizacionCreditoDto;
+import com.boutique.entity.dto.CotizacionCreditoRequest;
+import com.boutique.entity.dto.PlanCreditoDto;
+import com.boutique.entity.enums.Frecuencia;
+import com.boutique.service.AmortizacionService;
+import com.boutique.service.PlanCreditoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cálculo de créditos a interés simple, compartido por las ventas a crédito y
+ * por las cotizaciones.
+ *
+ * Los montos se manejan como enteros en centavos y las tasas en diezmilésimos,
+ * con el mismo redondeo HALF_UP que la versión en BigDecimal, así una cotización
+ * coincide al centavo con el crédito que se crea después. En una cotización la
+ * tasa y el calendario de cada plan se calculan una vez y se reutilizan para
+ * todos los montos.
+ * @author GERSON
+ */
+
+@Service
+public class AmortizacionServiceImpl implements AmortizacionService {
+    @Autowired
+    private PlanCreditoService planCreditoService;
+
+    private static final int MAX_COTIZACIONES = 10_000;
+    // Escala de la tasa por periodo: 4 decimales
+    private static final long ESCALA_TASA = 10_000L;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CotizacionCreditoDto> cotizar(CotizacionCreditoRequest request) {
+        List<BigDecimal> montos = validarMontos(request.getMontos());
+        List<PlanCreditoDto> planes = obtenerPlanes(request.getIdPlanesCredito());
+        if ((long) montos.size() * planes.size() > MAX_COTIZACIONES)
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "No se pueden cotizar más de " + MAX_COTIZACIONES + " combinaciones por solicitud."
+            );
+
+        LocalDate fechaVenta = request.getFecha() != null ? request.getFecha() : LocalDate.now();
+        boolean incluirCuotas = !Boolean.FALSE.equals(request.getIncluirCuotas());
+
+        // Datos de cada plan que no dependen del monto
+        int cantidadPlanes = planes.size();
+        long[] tasas = new long[cantidadPlanes];
+        long[] factores = new long[cantidadPlanes];
+        LocalDate fechaInicio = this.calcularFechaInicio(fechaVenta);
+        List<List<LocalDate>> calendarios = new ArrayList<>(cantidadPlanes);
+        for (int j = 0; j < cantidadPlanes; j++) {
+            PlanCreditoDto plan = planes.get(j);
+            validarPlazo(plan);
+            tasas[j] = tasaPorPeriodo(plan.getInteresAnual(), plan.getFrecuencia());
+            // Factor en diezmilésimos: 1 + tasa × plazo; el total en centavos es P × factor / 10000
+            factores[j] = ESCALA_TASA + tasas[j] * plan.getPlazo();
+            calendarios.add(incluirCuotas
+                    ? calendario(fechaInicio, plan.getFrecuencia(), plan.getPlazo())
+                    : null);
+        }
+
+        List<CotizacionCreditoDto> cotizaciones = new ArrayList<>(montos.size() * cantidadPlanes);
+        for (BigDecimal monto : montos) {
+            long centavos = aCentavos(monto);
+            for (int j = 0; j < cantidadPlanes; j++) {
+                PlanCreditoDto plan = planes.get(j);
+                long totalCentavos = montoTotalCentavos(
+                        centavos, factores[j], monto, plan.getInteresAnual(),
+                        plan.getFrecuencia(), plan.getPlazo()
+                );
+                long cuotaCentavos = dividirRedondeando(totalCentavos, plan.getPlazo());
+
+                cotizaciones.add(CotizacionCreditoDto.builder()
+                        .monto(BigDecimal.valueOf(centavos, 2))
+                        .idPlanCredito(plan.getId())
+                        .nombrePlan(plan.getNombre())
+                        .frecuencia(plan.getFrecuencia())
+                        .plazo(plan.getPlazo())
+                        .interesAnual(plan.getInteresAnual())
+                        .tasaPorPeriodo(BigDecimal.valueOf(tasas[j], 4))
+                        .interes(BigDecimal.valueOf(totalCentavos - centavos, 2))
+                        .montoTotal(BigDecimal.valueOf(totalCentavos, 2))
+                        .montoCuota(BigDecimal.valueOf(cuotaCentavos, 2))
+                        .fechaInicio(fechaInicio)
+                        .fechasVencimiento(calendarios.get(j))
+                        .build());
+            }
+        }
+        return cotizaciones;
+    }
+
+    /**
+     * Calcula el monto total del crédito basado en el total de la venta, interés anual,
+     * frecuencia y plazo. La fórmula utilizada es: (Interés simple)
+     * I=P×r×t donde:
+     * I = Interés
+     * P = Principal (monto del préstamo)
+     * r = Tasa de interés anual (en decimal)
+     * t = Tiempo
+     * Simplificado a I = P × (r / periodosPorAno) × plazo, porque el plazo ya está
+     * expresado en periodos.
+     * @param totalVenta
+     * @param interesAnual
+     * @param frecuencia
+     * @param plazo
+     * @return Monto total del crédito, redondeado a 2 decimales.
+     */
+    @Override
+    public BigDecimal calcularMontoTotal(
+            BigDecimal totalVenta, BigDecimal interesAnual, Frecuencia frecuencia,
+            Short plazo
+    ) {
+        if (totalVenta.stripTrailingZeros().scale() > 2)
+            return montoTotalDecimal(totalVenta, interesAnual, frecuencia, plazo);
+
+        long centavos = aCentavos(totalVenta);
+        long factor = ESCALA_TASA + tasaPorPeriodo(interesAnual, frecuencia) * plazo;
+        return BigDecimal.valueOf(
+                montoTotalCentavos(centavos, factor, totalVenta, interesAnual, frecuencia, plazo),
+                2
+        );
+    }
+
+    @Override
+    public BigDecimal calcularMontoCuota(BigDecimal montoTotal, Short plazo) {
+        return montoTotal.divide(BigDecimal.valueOf(plazo), 2, RoundingMode.HALF_UP);
+    }
+
+    @Override
+    public LocalDate calcularFechaInicio(LocalDate fechaVenta) {
+        return fechaVenta.plusMonths(1);
+    }
+
+    @Override
+    public LocalDate siguienteFechaVencimiento(
+            LocalDate fechaActual, Frecuencia frecuencia
+    ) {
+        return switch (frecuencia) {
+//            case DIARIA -> fechaActual.plusDays(1);
+            case QUINCENAL -> fechaActual.plusDays(15);
+            case SEMANAL -> fechaActual.plusWeeks(1);
+            case MENSUAL -> fechaActual.plusMonths(1);
+//            case BIMESTRAL -> fechaActual.plusMonths(2);
+//            case TRIMESTRAL -> fechaActual.plusMonths(3);
+//            case SEMESTRAL -> fechaActual.plusMonths(6);
+//            case ANUAL -> fechaActual.plusYears(1);
+            default -> throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Frecuencia no soportada: " + frecuencia
+            );
+        };
+    }
+
+    /**
+     * Monto total en centavos: redondeo HALF_UP de P × factor / 10000, con P en
+     * centavos. Si el producto no cabe en un long se resuelve con BigDecimal.
+     */
+    private long montoTotalCentavos(
+            long centavos, long factor, BigDecimal totalVenta, BigDecimal interesAnual,
+            Frecuencia frecuencia, Short plazo
+    ) {
+        long producto;
+        try {
+            producto = Math.multiplyExact(centavos, factor);
+        } catch (ArithmeticException e) {
+            return aCentavos(montoTotalDecimal(totalVenta, interesAnual, frecuencia, plazo));
+        }
+        return dividirRedondeando(producto, ESCALA_TASA);
+    }
+
+    private BigDecimal montoTotalDecimal(
+            BigDecimal totalVenta, BigDecimal interesAnual, Frecuencia frecuencia,
+            Short plazo
+    ) {
+        BigDecimal tasaPorPeriodo = BigDecimal.valueOf(tasaPorPeriodo(interesAnual, frecuencia), 4);
+        BigDecimal interes = totalVenta.multiply(tasaPorPeriodo)
+                .multiply(BigDecimal.valueOf(plazo));
+        return totalVenta.add(interes).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Tasa por periodo en diezmilésimos: (interesAnual / 100) redondeado a 4
+     * decimales y luego dividido entre los periodos del año, otra vez a 4 decimales.
+     * interesAnual / 100 con 4 decimales equivale a interesAnual × 100 en diezmilésimos.
+     */
+    private long tasaPorPeriodo(BigDecimal interesAnual, Frecuencia frecuencia) {
+        long tasaInteres = interesAnual.movePointRight(2)
+                .setScale(0, RoundingMode.HALF_UP)
+                .longValueExact();
+        return dividirRedondeando(tasaInteres, getPeriodoPorAno(frecuencia));
+    }
+
+    private short getPeriodoPorAno(Frecuencia frecuencia) {
+        return switch (frecuencia) {
+            case SEMANAL -> 52;
+            case QUINCENAL -> 24;
+            case MENSUAL -> 12;
+        };
+    }
+
+    private List<LocalDate> calendario(LocalDate fechaInicio, Frecuencia frecuencia, short plazo) {
+        List<LocalDate> fechas = new ArrayList<>(plazo);
+        LocalDate fechaVencimiento = fechaInicio;
+        for (short i = 1; i <= plazo; i++) {
+            fechas.add(fechaVencimiento);
+            fechaVencimiento = this.siguienteFechaVencimiento(fechaVencimiento, frecuencia);
+        }
+        return List.copyOf(fechas);
+    }
+
+    /**
+     * División entera con redondeo HALF_UP (el empate se aleja de cero), igual
+     * que BigDecimal.divide(..., RoundingMode.HALF_UP). El divisor debe ser positivo.
+     */
+    private static long dividirRedondeando(long dividendo, long divisor) {
+        long cociente = dividendo / divisor;
+        long resto = dividendo % divisor;
+        if (2 * Math.abs(resto) >= divisor)
+            cociente += Long.signum(dividendo);
+        return cociente;
+    }
+
+    private static long aCentavos(BigDecimal monto) {
+        return monto.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private List<BigDecimal> validarMontos(List<BigDecimal> montos) {
+        if (montos == null || montos.isEmpty())
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Debe indicar al menos un monto a cotizar."
+            );
+
+        for (BigDecimal monto : montos) {
+            if (monto == null || monto.signum() <= 0)
+                throw new ResponseStatusException(
+                        HttpStatus.BAD_REQUEST,
+                        "El monto a cotizar debe ser mayor a cero: " + monto
+                );
+            if (monto.stripTrailingZeros().scale() > 2)
+                throw new ResponseStatusException(
+                        HttpStatus.BAD_REQUEST,
+                        "El monto a cotizar no puede tener más de 2 decimales: " + monto
+                );
+        }
+        return montos;
+    }
+
+    private List<PlanCreditoDto> obtenerPlanes(List<Short> idPlanesCredito) {
+        List<PlanCreditoDto> planes = idPlanesCredito == null || idPlanesCredito.isEmpty()
+                ? this.planCreditoService.listarPlanesCredito().stream()
+                        .filter(plan -> Boolean.TRUE.equals(plan.getActivo()))
+                        .toList()
+                : idPlanesCredito.stream()
+                        .distinct()
+                        .map(this.planCreditoService::obtenerPlanCreditoPorId)
+                        .toList();
+
+        if (planes.isEmpty())
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "No hay planes de crédito activos para cotizar."
+            );
+        return planes;
+    }
+
+    private void validarPlazo(PlanCreditoDto plan) {
+        if (plan.getPlazo() == null || plan.getPlazo() <= 0)
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "El plan de crédito " + plan.getId() + " tiene un plazo inválido."
+            );
+    }
+}
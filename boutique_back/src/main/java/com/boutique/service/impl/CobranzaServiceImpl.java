@@ -0,0 +1,95 @@
+package com.boutique.service.impl;
+
+import com.boutique.cache.CarteraVencidaCache;
+import com.boutique.entity.dto.AntiguedadCarteraDto;
+import com.boutique.entity.dto.CuotaVencidaDto;
+import com.boutique.repository.CuotaRepository;
+import com.boutique.service.CobranzaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Cartera vencida para cobranza. Las consultas se responden desde
+ * CarteraVencidaCache; la base sólo se lee en el recálculo programado.
+ * @author GERSON
+ */
+
+@Service
+public class CobranzaServiceImpl implements CobranzaService {
+    @Autowired
+    private CuotaRepository cuotaRepository;
+    @Autowired
+    private CarteraVencidaCache cartera;
+
+    @Override
+    public Page<CuotaVencidaDto> listarCuotasVencidas(Long idSucursal, Pageable pageable) {
+        long total = this.cartera.contarCuotas(idSucursal);
+        List<CuotaVencidaDto> cuotas = this.cartera.obtenerCuotas(
+                idSucursal, pageable.getOffset(), pageable.getPageSize()
+        );
+        return new PageImpl<>(cuotas, pageable, total);
+    }
+
+    @Override
+    public List<AntiguedadCarteraDto> obtenerAntiguedadCartera(Long idSucursal) {
+        return this.cartera.obtenerAntiguedad(idSucursal);
+    }
+
+    /**
+     * Quita la cuota de la cartera cuando se confirma la transacción del pago.
+     */
+    @Override
+    public void registrarPagoCuota(Long idCuota) {
+        alConfirmar(() -> this.cartera.quitarCuota(idCuota));
+    }
+
+    /**
+     * Quita las cuotas de la venta cuando se confirma su cancelación.
+     */
+    @Override
+    public void registrarCancelacionVenta(Long idVenta) {
+        alConfirmar(() -> this.cartera.quitarVenta(idVenta));
+    }
+
+    /**
+     * Recalcula la cartera al arrancar, cada cierto intervalo y apenas empieza
+     * el día, cuando cambian los días de atraso de todas las cuotas.
+     */
+    @Override
+    @Scheduled(
+            initialDelayString = "PT0S",
+            fixedDelayString = "${cobranza.recalculo:PT5M}"
+    )
+    @Scheduled(cron = "1 0 0 * * *")
+    @Transactional(readOnly = true)
+    public void recalcularCartera() {
+        LocalDate hoy = LocalDate.now();
+        this.cartera.iniciarRecalculo();
+        this.cartera.publicar(hoy, this.cuotaRepository.findCuotasVencidas(hoy));
+    }
+
+    private static void alConfirmar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            accion.run();
+                        }
+                    }
+            );
+        } else {
+            accion.run();
+        }
+    }
+}
@@ -2,13 +2,19 @@ package com.boutique.service.impl;
 
 import com.boutique.entity.Credito;
 import com.boutique.entity.Cuota;
+import com.boutique.entity.EventoDominio;
 import com.boutique.entity.Pago;
 import com.boutique.entity.dto.CreditoDto;
+import com.boutique.entity.dto.CuotaCreditoDto;
 import com.boutique.entity.dto.CuotaDto;
 import com.boutique.entity.enums.Frecuencia;
+import com.boutique.entity.enums.TipoEventoDominio;
 import com.boutique.repository.CuotaRepository;
+import com.boutique.service.AmortizacionService;
+import com.boutique.service.CobranzaService;
 import com.boutique.service.CreditoService;
 import com.boutique.service.CuotaService;
+import com.boutique.service.EventoDominioService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
@@ -18,7 +24,11 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * @author GERSON
@@ -32,6 +42,12 @@ public class CuotaServiceImpl implements CuotaService {
     @Autowired
     @Lazy
     private CreditoService creditoService;
+    @Autowired
+    private AmortizacionService amortizacionService;
+    @Autowired
+    private CobranzaService cobranzaService;
+    @Autowired
+    private EventoDominioService eventoDominioService;
 
     @Override
     @Transactional(readOnly = true)
@@ -46,24 +62,85 @@ public class CuotaServiceImpl implements CuotaService {
     @Transactional
     public void generarCuotasParaCredito(Credito credito, Frecuencia frecuencia) {
         LocalDate fechaVencimiento = credito.getFechaInicio();
+        List<Cuota> cuotas = new ArrayList<>(credito.getNumeroCuotas());
 
         for (short i = 1; i <= credito.getNumeroCuotas(); i++) {
-            Cuota cuota = crearCuota(i, credito.getMontoCuota(), fechaVencimiento, credito);
-            this.repository.save(cuota);
-            fechaVencimiento = siguienteFechaVencimiento(fechaVencimiento, frecuencia);
+            cuotas.add(crearCuota(i, credito.getMontoCuota(), fechaVencimiento, credito));
+            fechaVencimiento = this.amortizacionService.siguienteFechaVencimiento(
+                    fechaVencimiento, frecuencia
+            );
         }
+        // Con ids de secuencia, Hibernate agrupa los INSERT en lotes (hibernate.jdbc.batch_size)
+        this.repository.saveAll(cuotas);
     }
 
+    /**
+     * Marca la cuota como pagada. Cuota, crédito y venta se cargan en una sola
+     * consulta y se actualizan siempre en ese orden; el @Version de la cuota
+     * impide que dos pagos simultáneos la cobren dos veces.
+     */
     @Override
     @Transactional
     public void actualizarEstadoCuotaDespuesDePago(Long idCuota, Pago pago) {
-        Cuota cuota = getCuotaById(idCuota);
-        cuota.setFechaPago(pago.getFecha());
-        cuota.setPagada(true);
-        cuota.setPago(pago);
-        this.repository.save(cuota);
+        Cuota cuota = this.repository.findConCreditoYVentaById(idCuota)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND,
+                        "Cuota no encontrada con ID: " + idCuota
+                ));
+        if (Boolean.TRUE.equals(cuota.getPagada()))
+            throw new ResponseStatusException(
+                    HttpStatus.CONFLICT,
+                    "La cuota ya fue pagada: " + idCuota
+            );
+
+        this.actualizarEstadoCuotasDespuesDePago(cuota.getCredito(), List.of(cuota), List.of(pago));
+    }
+
+    /**
+     * @return Id del crédito de cada cuota encontrada, sin cargar las entidades.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Long> obtenerCreditosPorCuota(Collection<Long> idsCuota) {
+        return this.repository.findCreditosByCuotaIdIn(idsCuota).stream()
+                .collect(Collectors.toMap(CuotaCreditoDto::getIdCuota, CuotaCreditoDto::getIdCredito));
+    }
+
+    /**
+     * Carga las cuotas con su crédito y su venta en una sola consulta.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Cuota> obtenerCuotasParaPago(Collection<Long> idsCuota) {
+        return this.repository.findConCreditoYVentaByIdIn(idsCuota);
+    }
 
-        this.creditoService.actualizarSaldoCreditoDespuesDePago(cuota.getCredito().getId());
+    /**
+     * Marca como pagadas cuotas de un mismo crédito, cada una con su pago, y
+     * descuenta todas del saldo del crédito en una sola actualización.
+     */
+    @Override
+    @Transactional
+    public void actualizarEstadoCuotasDespuesDePago(
+            Credito credito, List<Cuota> cuotas, List<Pago> pagos
+    ) {
+        List<EventoDominio> eventos = new ArrayList<>(cuotas.size());
+        for (int i = 0; i < cuotas.size(); i++) {
+            Cuota cuota = cuotas.get(i);
+            Pago pago = pagos.get(i);
+            cuota.setFechaPago(pago.getFecha());
+            cuota.setPagada(true);
+            cuota.setPago(pago);
+            this.cobranzaService.registrarPagoCuota(cuota.getId());
+            eventos.add(EventoDominio.de(
+                    TipoEventoDominio.PAGO_APLICADO, credito.getVenta().getId(), pago.getId(),
+                    null, null
+            ));
+        }
+        this.repository.saveAll(cuotas);
+        this.eventoDominioService.publicarTodos(eventos);
+
+        this.creditoService.actualizarSaldoCreditoDespuesDePago(credito, cuotas.size());
     }
 
     private Cuota crearCuota(
@@ -78,31 +155,4 @@ public class CuotaServiceImpl implements CuotaService {
                 .credito(credito)
                 .build();
     }
-
-    private LocalDate siguienteFechaVencimiento(
-            LocalDate fechaActual, Frecuencia frecuencia
-    ) {
-        return switch (frecuencia) {
-//            case DIARIA -> fechaActual.plusDays(1);
-            case QUINCENAL -> fechaActual.plusDays(15);
-            case SEMANAL -> fechaActual.plusWeeks(1);
-            case MENSUAL -> fechaActual.plusMonths(1);
-//            case BIMESTRAL -> fechaActual.plusMonths(2);
-//            case TRIMESTRAL -> fechaActual.plusMonths(3);
-//            case SEMESTRAL -> fechaActual.plusMonths(6);
-//            case ANUAL -> fechaActual.plusYears(1);
-            default -> throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "Frecuencia no soportada: " + frecuencia
-            );
-        };
-    }
-
-    private Cuota getCuotaById(Long idCuota) {
-        return this.repository.findById(idCuota)
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND,
-                        "Cuota no encontrada con ID: " + idCuota
-                ));
-    }
 }
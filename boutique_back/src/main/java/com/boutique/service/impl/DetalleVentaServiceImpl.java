@@ -4,7 +4,6 @@ import com.boutique.entity.DetalleVenta;
 import com.boutique.entity.Producto;
 import com.boutique.entity.Venta;
 import com.boutique.entity.dto.DetalleVentaDto;
-import com.boutique.entity.dto.InventarioDto;
 import com.boutique.repository.DetalleVentaRepository;
 import com.boutique.service.DetalleVentaService;
 import com.boutique.service.InventarioService;
@@ -14,8 +13,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author GERSON
@@ -72,71 +73,39 @@ public class DetalleVentaServiceImpl implements DetalleVentaService {
     @Override
     @Transactional
     public void devolverDetallesVenta(List<DetalleVentaDto> detallesVenta, Long idSucursal) {
-        for (DetalleVentaDto detalleDto : detallesVenta) {
-            InventarioDto inventario = this.getInventarioByProductoYSucursal(
-                    detalleDto.getIdProducto(),
-                    idSucursal
-            );
-
-            int nuevaCantidadInventario = inventario.getCantidad() + detalleDto.getCantidad();
-            inventario.setCantidad(nuevaCantidadInventario);
-            this.inventarioService.actualizarInventario(inventario.getId(), inventario);
-        }
+        this.inventarioService.reponerStock(idSucursal, sumarCantidadesPorProducto(detallesVenta));
     }
 
     private List<DetalleVenta> ajustarDetalles(
             List<DetalleVentaDto> nuevosDetallesVenta,
             Long idSucursal, Venta venta
     ) {
+        this.inventarioService.reservarStock(
+                idSucursal, sumarCantidadesPorProducto(nuevosDetallesVenta)
+        );
+
         List<DetalleVenta> detallesAjustados = new LinkedList<>();
 
         for (DetalleVentaDto detalleDto : nuevosDetallesVenta) {
-            InventarioDto inventario = this.getInventarioByProductoYSucursal(
-                    detalleDto.getIdProducto(),
-                    idSucursal
-            );
-
-            verificarStockDelInventario(inventario, detalleDto);
-
             DetalleVenta detalle = DetalleVentaDto.toEntity(detalleDto);
-            detalle.setProducto(new Producto(inventario.getIdProducto()));
+            detalle.setProducto(new Producto(detalleDto.getIdProducto()));
             detalle.setVenta(venta);
-
-            actualizarStockDelInventario(inventario, detalleDto);
-
             detallesAjustados.add(detalle);
         }
 
         return detallesAjustados;
     }
 
-    private InventarioDto getInventarioByProductoYSucursal(Long idProducto, Long idSucursal) {
-        return this.inventarioService.obtenerInventarioPorSucursalYProducto(
-                idSucursal,
-                idProducto
-        );
-    }
-
-    private void verificarStockDelInventario(
-            InventarioDto inventario,
-            DetalleVentaDto nuevoDetalleVenta
-    ) {
-        if (inventario.getCantidad() < nuevoDetalleVenta.getCantidad()) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "No hay suficiente inventario para el producto: "
-                            + inventario.getNombreProducto() + " en la sucursal: "
-                            + inventario.getNombreSucursal()
+    /**
+     * Un mismo producto puede venir en varias líneas: se agrupa la cantidad total.
+     */
+    private Map<Long, Integer> sumarCantidadesPorProducto(List<DetalleVentaDto> detalles) {
+        Map<Long, Integer> cantidadesPorProducto = new HashMap<>();
+        for (DetalleVentaDto detalleDto : detalles) {
+            cantidadesPorProducto.merge(
+                    detalleDto.getIdProducto(), detalleDto.getCantidad(), Integer::sum
             );
         }
-    }
-
-    private void actualizarStockDelInventario(
-            InventarioDto inventario,
-            DetalleVentaDto nuevoDetalleVenta
-    ) {
-        int nuevoCantidadInventario = inventario.getCantidad() - nuevoDetalleVenta.getCantidad();
-        inventario.setCantidad(nuevoCantidadInventario);
-        this.inventarioService.actualizarInventario(inventario.getId(), inventario);
+        return cantidadesPorProducto;
     }
 }
@@ -0,0 +1,74 @@
+package com.boutique.service.impl;
+
+import com.boutique.entity.EventoDominio;
+import com.boutique.repository.EventoDominioRepository;
+import com.boutique.service.EventoDominioService;
+import com.boutique.service.VentaDiariaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Bus de eventos de dominio con semántica de outbox.
+ *
+ * publicar guarda el evento en la transacción de quien lo produce y lo entrega a
+ * los @TransactionalEventListener, que lo reciben sólo después del commit. Si la
+ * aplicación se detiene antes de que el resumen de ventas lo procese, el reenvío
+ * periódico lo vuelve a entregar a partir de la tabla.
+ * @author GERSON
+ */
+
+@Service
+@Transactional
+public class EventoDominioServiceImpl implements EventoDominioService {
+    @Autowired
+    private EventoDominioRepository repository;
+    @Autowired
+    private VentaDiariaService ventaDiariaService;
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    // Margen para que la entrega normal, después del commit, llegue primero
+    private static final Duration ESPERA_REENVIO = Duration.ofSeconds(30);
+    private static final int MAX_REENVIOS = 500;
+    private static final Duration RETENCION_PROCESADOS = Duration.ofDays(7);
+
+    @Override
+    @Transactional
+    public void publicar(EventoDominio evento) {
+        this.repository.save(evento);
+        this.publisher.publishEvent(evento);
+    }
+
+    @Override
+    @Transactional
+    public void publicarTodos(List<EventoDominio> eventos) {
+        this.repository.saveAll(eventos);
+        eventos.forEach(this.publisher::publishEvent);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${eventos.reenvio:PT1M}")
+    @Transactional(readOnly = true)
+    public void reenviarPendientes() {
+        this.repository.findPendientes(
+                LocalDateTime.now().minus(ESPERA_REENVIO), PageRequest.of(0, MAX_REENVIOS)
+        ).forEach(this.ventaDiariaService::procesarEvento);
+    }
+
+    @Override
+    @Scheduled(cron = "0 30 3 * * *")
+    @Transactional
+    public void eliminarProcesados() {
+        this.repository.eliminarProcesadosAntesDe(
+                LocalDateTime.now().minus(RETENCION_PROCESADOS)
+        );
+    }
+}
@@ -1,5 +1,6 @@
 package com.boutique.service.impl;
 
+import com.boutique.cache.StockCache;
 import com.boutique.entity.Inventario;
 import com.boutique.entity.dto.InventarioDto;
 import com.boutique.repository.InventarioRepository;
@@ -8,10 +9,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
 /**
  * @author GERSON
  */
@@ -21,6 +28,19 @@ import org.springframework.web.server.ResponseStatusException;
 public class InventarioServiceImpl implements InventarioService {
     @Autowired
     private InventarioRepository repository;
+    @Autowired
+    private StockCache stockCache;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Mismo UPDATE condicional que InventarioRepository.descontarStock, para enviarlo en lote
+    private static final String SQL_DESCONTAR_STOCK = """
+        UPDATE inventario
+        SET cantidad = cantidad - ?
+        WHERE sucursal_id = ?
+        AND producto_id = ?
+        AND cantidad >= ?
+    """;
 
     @Override
     @Transactional(readOnly = true)
@@ -64,6 +84,7 @@ public class InventarioServiceImpl implements InventarioService {
     public InventarioDto crearInventario(InventarioDto nuevoInventario) {
         Inventario inventario = InventarioDto.toEntity(nuevoInventario);
         Inventario inventarioGuardado = this.repository.save(inventario);
+        this.stockCache.invalidar(nuevoInventario.getIdSucursal(), nuevoInventario.getIdProducto());
         return InventarioDto.toDto(inventarioGuardado);
     }
 
@@ -73,13 +94,79 @@ public class InventarioServiceImpl implements InventarioService {
         Inventario inventarioExistente = this.getInventarioById(id);
         inventarioExistente.setCantidad(inventarioDto.getCantidad());
         Inventario inventarioActualizado = this.repository.save(inventarioExistente);
+        this.invalidarStock(inventarioActualizado);
         return InventarioDto.toDto(inventarioActualizado);
     }
 
     @Override
     public Integer getStockPorSucursalYProducto(Long idSucursal, Long idProducto) {
-        Inventario inventario = this.getInventarioBySucursalYProducto(idSucursal, idProducto);
-        return inventario.getCantidad();
+        return this.stockCache.obtener(idSucursal, idProducto, () -> this.repository
+                .findCantidadBySucursalIdAndProductoId(idSucursal, idProducto)
+                .orElseThrow(() -> inventarioNoEncontrado(idSucursal, idProducto))
+        );
+    }
+
+    @Override
+    @Transactional
+    public boolean descontarStock(Long idSucursal, Long idProducto, Integer cantidad) {
+        boolean descontado = this.repository.descontarStock(idSucursal, idProducto, cantidad) > 0;
+        if (descontado)
+            this.stockCache.invalidar(idSucursal, idProducto);
+        return descontado;
+    }
+
+    /**
+     * Descuenta el stock de varios productos de una sucursal sin leer y reescribir
+     * la cantidad: cada línea es un UPDATE condicional atómico y todas viajan en
+     * un solo lote JDBC. Los productos se recorren ordenados por id para que dos
+     * ventas concurrentes bloqueen las filas en el mismo orden y no se produzcan
+     * deadlocks.
+     * Solo si un descuento no afecta ninguna fila se consulta el inventario para
+     * armar el mensaje; la excepción revierte los descuentos ya aplicados en la
+     * transacción.
+     * @param idSucursal Sucursal de la venta.
+     * @param cantidadesPorProducto Cantidad a descontar por id de producto.
+     */
+    @Override
+    @Transactional
+    public void reservarStock(Long idSucursal, Map<Long, Integer> cantidadesPorProducto) {
+        List<Long> productos = new ArrayList<>(cantidadesPorProducto.size());
+        List<Object[]> parametros = new ArrayList<>(cantidadesPorProducto.size());
+        for (Map.Entry<Long, Integer> reserva : new TreeMap<>(cantidadesPorProducto).entrySet()) {
+            productos.add(reserva.getKey());
+            parametros.add(new Object[]{
+                    reserva.getValue(), idSucursal, reserva.getKey(), reserva.getValue()
+            });
+        }
+
+        int[] filas = this.jdbcTemplate.batchUpdate(SQL_DESCONTAR_STOCK, parametros);
+        for (int i = 0; i < filas.length; i++) {
+            if (filas[i] == 0) {
+                Inventario inventario = this.getInventarioBySucursalYProducto(
+                        idSucursal, productos.get(i)
+                );
+                throw new ResponseStatusException(
+                        HttpStatus.CONFLICT,
+                        "No hay suficiente inventario para el producto: "
+                                + inventario.getProducto().getNombre() + " en la sucursal: "
+                                + inventario.getSucursal().getNombre()
+                );
+            }
+        }
+        productos.forEach(idProducto -> this.stockCache.invalidar(idSucursal, idProducto));
+    }
+
+    @Override
+    @Transactional
+    public void reponerStock(Long idSucursal, Map<Long, Integer> cantidadesPorProducto) {
+        for (Map.Entry<Long, Integer> devolucion : new TreeMap<>(cantidadesPorProducto).entrySet()) {
+            int filas = this.repository.reponerStock(
+                    idSucursal, devolucion.getKey(), devolucion.getValue()
+            );
+            if (filas == 0)
+                throw inventarioNoEncontrado(idSucursal, devolucion.getKey());
+            this.stockCache.invalidar(idSucursal, devolucion.getKey());
+        }
     }
 
     @Override
@@ -87,6 +174,7 @@ public class InventarioServiceImpl implements InventarioService {
     public void eliminarInventario(Long id) {
         Inventario inventarioExistente = this.getInventarioById(id);
         this.repository.delete(inventarioExistente);
+        this.invalidarStock(inventarioExistente);
     }
 
     private Inventario getInventarioById(Long id) {
@@ -99,10 +187,21 @@ public class InventarioServiceImpl implements InventarioService {
 
     private Inventario getInventarioBySucursalYProducto(Long idSucursal, Long idProducto) {
         return this.repository.findBySucursalIdAndProductoId(idSucursal, idProducto)
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND,
-                        "Inventario no encontrado para la sucursal con id: " + idSucursal +
-                                " y el producto con id: " + idProducto
-                ));
+                .orElseThrow(() -> inventarioNoEncontrado(idSucursal, idProducto));
+    }
+
+    private ResponseStatusException inventarioNoEncontrado(Long idSucursal, Long idProducto) {
+        return new ResponseStatusException(
+                HttpStatus.NOT_FOUND,
+                "Inventario no encontrado para la sucursal con id: " + idSucursal +
+                        " y el producto con id: " + idProducto
+        );
+    }
+
+    private void invalidarStock(Inventario inventario) {
+        this.stockCache.invalidar(
+                inventario.getSucursal().getId(),
+                inventario.getProducto().getId()
+        );
     }
 }
@@ -0,0 +1,115 @@
+package com.boutique.service.impl;
+
+import com.boutique.entity.dto.PagoSimpleDto;
+import com.boutique.entity.dto.ResultadoPagoLoteDto;
+import com.boutique.service.CuotaService;
+import com.boutique.service.PagoLoteService;
+import com.boutique.service.PagoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+
+/**
+ * Carga masiva de pagos, pensada para el cierre de caja.
+ *
+ * Los pagos de cuotas se agrupan por crédito y cada grupo se aplica en su propia
+ * transacción (ver PagoService.crearPagosCuotasCredito); los pagos de ventas se
+ * aplican uno por uno. Un grupo que falla no deshace los demás: sus pagos se
+ * informan como rechazados en la respuesta, en el mismo orden del pedido.
+ * @author GERSON
+ */
+
+@Service
+public class PagoLoteServiceImpl implements PagoLoteService {
+    @Autowired
+    private PagoService pagoService;
+    @Autowired
+    private CuotaService cuotaService;
+
+    private static final int MAX_PAGOS_LOTE = 1_000;
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ResultadoPagoLoteDto> registrarPagosLote(List<PagoSimpleDto> pagos) {
+        if (pagos == null || pagos.isEmpty())
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Debe indicar al menos un pago."
+            );
+        if (pagos.size() > MAX_PAGOS_LOTE)
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "No se pueden registrar más de " + MAX_PAGOS_LOTE + " pagos por lote."
+            );
+
+        ResultadoPagoLoteDto[] resultados = new ResultadoPagoLoteDto[pagos.size()];
+        List<Integer> pagosVenta = new ArrayList<>();
+        Set<Long> idsCuota = new HashSet<>();
+        for (int i = 0; i < pagos.size(); i++) {
+            PagoSimpleDto pago = pagos.get(i);
+            if (pago == null || (pago.getIdVenta() == null) == (pago.getIdCuota() == null))
+                resultados[i] = ResultadoPagoLoteDto.rechazado(
+                        i, pago, "El pago debe indicar una venta o una cuota, pero no ambas."
+                );
+            else if (pago.getIdVenta() != null)
+                pagosVenta.add(i);
+            else
+                idsCuota.add(pago.getIdCuota());
+        }
+
+        // Agrupados por crédito en orden de id, para que dos lotes simultáneos
+        // bloqueen los créditos en el mismo orden
+        Map<Long, Long> creditos = idsCuota.isEmpty()
+                ? Map.of()
+                : this.cuotaService.obtenerCreditosPorCuota(idsCuota);
+        Map<Long, Map<Integer, PagoSimpleDto>> porCredito = new TreeMap<>();
+        for (int i = 0; i < pagos.size(); i++) {
+            PagoSimpleDto pago = pagos.get(i);
+            if (resultados[i] != null || pago.getIdCuota() == null)
+                continue;
+            Long idCredito = creditos.get(pago.getIdCuota());
+            if (idCredito == null)
+                resultados[i] = ResultadoPagoLoteDto.rechazado(
+                        i, pago, "Cuota no encontrada con ID: " + pago.getIdCuota()
+                );
+            else
+                porCredito.computeIfAbsent(idCredito, k -> new LinkedHashMap<>()).put(i, pago);
+        }
+
+        porCredito.forEach((idCredito, pagosCuota) -> {
+            try {
+                this.pagoService.crearPagosCuotasCredito(pagosCuota)
+                        .forEach(resultado -> resultados[resultado.getIndice()] = resultado);
+            } catch (RuntimeException e) {
+                String error = motivo(e);
+                pagosCuota.forEach((i, pago) ->
+                        resultados[i] = ResultadoPagoLoteDto.rechazado(i, pago, error));
+            }
+        });
+
+        for (Integer i : pagosVenta) {
+            PagoSimpleDto pago = pagos.get(i);
+            try {
+                PagoSimpleDto creado = this.pagoService.crearPagoVenta(pago);
+                resultados[i] = ResultadoPagoLoteDto.aplicado(i, pago, creado.getId());
+            } catch (RuntimeException e) {
+                resultados[i] = ResultadoPagoLoteDto.rechazado(i, pago, motivo(e));
+            }
+        }
+        return Arrays.asList(resultados);
+    }
+
+    private String motivo(RuntimeException e) {
+        if (e instanceof ResponseStatusException rse)
+            return rse.getReason();
+        if (e instanceof OptimisticLockingFailureException)
+            return "El crédito fue modificado por otra operación; intente nuevamente.";
+        return "No se pudo registrar el pago.";
+    }
+}
@@ -1,13 +1,19 @@
 package com.boutique.service.impl;
 
+import com.boutique.entity.Credito;
+import com.boutique.entity.Cuota;
+import com.boutique.entity.EventoDominio;
 import com.boutique.entity.Pago;
 import com.boutique.entity.dto.CuotaDto;
 import com.boutique.entity.dto.PagoDetalleDto;
 import com.boutique.entity.dto.PagoSimpleDto;
+import com.boutique.entity.dto.ResultadoPagoLoteDto;
 import com.boutique.entity.dto.VentaSimpleDto;
 import com.boutique.entity.enums.EstadoPago;
+import com.boutique.entity.enums.TipoEventoDominio;
 import com.boutique.repository.PagoRepository;
 import com.boutique.service.CuotaService;
+import com.boutique.service.EventoDominioService;
 import com.boutique.service.PagoService;
 import com.boutique.service.VentaService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +24,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.*;
+import java.util.stream.Collectors;
+
 /**
  * @author GERSON
  */
@@ -31,6 +40,8 @@ public class PagoServiceImpl implements PagoService {
     private VentaService ventaService;
     @Autowired
     private CuotaService cuotaService;
+    @Autowired
+    private EventoDominioService eventoDominioService;
 
     @Override
     @Transactional(readOnly = true)
@@ -68,6 +79,10 @@ public class PagoServiceImpl implements PagoService {
         this.ventaService.actualizarEstadoVentaDespuesDePago(
                 nuevoPago.getIdVenta(), pagoGuardado
         );
+        this.eventoDominioService.publicar(EventoDominio.de(
+                TipoEventoDominio.PAGO_APLICADO, nuevoPago.getIdVenta(), pagoGuardado.getId(),
+                null, null
+        ));
         return PagoSimpleDto.toDto(pagoGuardado);
     }
 
@@ -84,6 +99,68 @@ public class PagoServiceImpl implements PagoService {
         return PagoSimpleDto.toDto(pagoGuardado);
     }
 
+    /**
+     * Aplica en una sola transacción los pagos de cuotas de un mismo crédito:
+     * carga todas las cuotas en una consulta, inserta los pagos en lote y descuenta
+     * el saldo del crédito una sola vez. Las cuotas inexistentes, ya pagadas o
+     * repetidas se rechazan sin afectar al resto.
+     * @param pagosCuota Pagos indexados por su posición en la carga masiva.
+     * @return Resultado de cada pago, con su misma posición.
+     */
+    @Override
+    @Transactional
+    public List<ResultadoPagoLoteDto> crearPagosCuotasCredito(Map<Integer, PagoSimpleDto> pagosCuota) {
+        Set<Long> idsCuota = pagosCuota.values().stream()
+                .map(PagoSimpleDto::getIdCuota)
+                .collect(Collectors.toSet());
+        Map<Long, Cuota> cuotas = this.cuotaService.obtenerCuotasParaPago(idsCuota).stream()
+                .collect(Collectors.toMap(Cuota::getId, cuota -> cuota));
+
+        List<ResultadoPagoLoteDto> resultados = new ArrayList<>(pagosCuota.size());
+        List<Integer> indices = new ArrayList<>();
+        List<Cuota> cuotasPagadas = new ArrayList<>();
+        List<Pago> pagos = new ArrayList<>();
+        Set<Long> idsAplicados = new HashSet<>();
+        Credito credito = null;
+
+        for (Map.Entry<Integer, PagoSimpleDto> entrada : pagosCuota.entrySet()) {
+            PagoSimpleDto nuevoPago = entrada.getValue();
+            Cuota cuota = cuotas.get(nuevoPago.getIdCuota());
+            String error = null;
+            if (cuota == null)
+                error = "Cuota no encontrada con ID: " + nuevoPago.getIdCuota();
+            else if (Boolean.TRUE.equals(cuota.getPagada()))
+                error = "La cuota ya fue pagada: " + cuota.getId();
+            else if (!idsAplicados.add(cuota.getId()))
+                error = "La cuota está repetida en el lote: " + cuota.getId();
+            else if (credito != null && !credito.getId().equals(cuota.getCredito().getId()))
+                error = "La cuota no pertenece al crédito " + credito.getId() + ": " + cuota.getId();
+
+            if (error != null) {
+                resultados.add(ResultadoPagoLoteDto.rechazado(entrada.getKey(), nuevoPago, error));
+                continue;
+            }
+
+            Pago pago = PagoSimpleDto.toEntity(nuevoPago);
+            pago.setPagoDe("CUOTA");
+            pago.setEstado(EstadoPago.COMPLETADO);
+            credito = cuota.getCredito();
+            indices.add(entrada.getKey());
+            cuotasPagadas.add(cuota);
+            pagos.add(pago);
+        }
+
+        if (!pagos.isEmpty()) {
+            List<Pago> pagosGuardados = this.repository.saveAll(pagos);
+            this.cuotaService.actualizarEstadoCuotasDespuesDePago(credito, cuotasPagadas, pagosGuardados);
+            for (int i = 0; i < pagosGuardados.size(); i++)
+                resultados.add(ResultadoPagoLoteDto.aplicado(
+                        indices.get(i), pagosCuota.get(indices.get(i)), pagosGuardados.get(i).getId()
+                ));
+        }
+        return resultados;
+    }
+
     private Pago getPagoById(Long idPago) {
         return this.repository.findById(idPago)
                 .orElseThrow(() -> new ResponseStatusException(
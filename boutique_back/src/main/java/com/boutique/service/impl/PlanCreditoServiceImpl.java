@@ -1,10 +1,14 @@
 package com.boutique.service.impl;
 
+import com.boutique.config.CacheConfig;
 import com.boutique.entity.PlanCredito;
 import com.boutique.entity.dto.PlanCreditoDto;
 import com.boutique.repository.PlanCreditoRepository;
 import com.boutique.service.PlanCreditoService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,6 +27,7 @@ public class PlanCreditoServiceImpl implements PlanCreditoService {
     private PlanCreditoRepository repository;
 
     @Override
+    @Cacheable(CacheConfig.PLANES_CREDITO)
     @Transactional(readOnly = true)
     public List<PlanCreditoDto> listarPlanesCredito() {
         return this.repository.findAll().stream()
@@ -31,11 +36,14 @@ public class PlanCreditoServiceImpl implements PlanCreditoService {
     }
 
     @Override
+    @Cacheable(CacheConfig.PLAN_CREDITO)
+    @Transactional(readOnly = true)
     public PlanCreditoDto obtenerPlanCreditoPorId(Short id) {
         return PlanCreditoDto.toDto(this.getPlanCreditoById(id));
     }
 
     @Override
+    @CacheEvict(value = CacheConfig.PLANES_CREDITO, allEntries = true)
     public PlanCreditoDto crearPlanCredito(PlanCreditoDto nuevoPlanCredito) {
         return PlanCreditoDto.toDto(
                 this.repository.save(
@@ -45,6 +53,10 @@ public class PlanCreditoServiceImpl implements PlanCreditoService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.PLANES_CREDITO, allEntries = true),
+            @CacheEvict(value = CacheConfig.PLAN_CREDITO, key = "#id")
+    })
     public PlanCreditoDto actualizarPlanCredito(
             Short id,
             PlanCreditoDto planCreditoActualizado
@@ -62,6 +74,10 @@ public class PlanCreditoServiceImpl implements PlanCreditoService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.PLANES_CREDITO, allEntries = true),
+            @CacheEvict(value = CacheConfig.PLAN_CREDITO, key = "#id")
+    })
     public void eliminarPlanCredito(Short id) {
         PlanCredito planCreditoExistente = this.getPlanCreditoById(id);
         this.repository.delete(planCreditoExistente);
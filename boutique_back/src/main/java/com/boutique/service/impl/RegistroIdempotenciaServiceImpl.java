@@ -0,0 +1,97 @@
+package com.boutique.service.impl;
+
+import com.boutique.cache.IdempotenciaCache;
+import com.boutique.cache.IdempotenciaCache.ClaveIdempotencia;
+import com.boutique.cache.IdempotenciaCache.RespuestaIdempotente;
+import com.boutique.entity.RegistroIdempotencia;
+import com.boutique.repository.RegistroIdempotenciaRepository;
+import com.boutique.service.RegistroIdempotenciaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro persistente de las respuestas idempotentes. Se escribe fuera del hilo
+ * de la petición y sólo se lee al arrancar, para que las claves sobrevivan a un
+ * reinicio del servicio.
+ * @author GERSON
+ */
+
+@Service
+public class RegistroIdempotenciaServiceImpl implements RegistroIdempotenciaService {
+    @Autowired
+    private RegistroIdempotenciaRepository repository;
+    @Autowired
+    private IdempotenciaCache idempotenciaCache;
+
+    @Override
+    @Async
+    @Transactional
+    public void registrar(ClaveIdempotencia clave, RespuestaIdempotente respuesta) {
+        this.repository.registrar(
+                clave.usuario(), clave.ruta(), clave.valor(), (short) respuesta.estado(),
+                respuesta.tipoContenido(), aTexto(respuesta.cabeceras()), respuesta.cuerpo(),
+                respuesta.hashSolicitud(),
+                respuesta.fechaCreacion()
+        );
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void precargarCache() {
+        LocalDateTime desde = LocalDateTime.now().minus(this.idempotenciaCache.getTtl());
+        for (RegistroIdempotencia registro : this.repository.findByFechaCreacionAfter(desde)) {
+            this.idempotenciaCache.precargar(
+                    new ClaveIdempotencia(registro.getUsuario(), registro.getRuta(), registro.getClave()),
+                    new RespuestaIdempotente(
+                            registro.getEstado(), registro.getTipoContenido(),
+                            deTexto(registro.getCabeceras()), registro.getCuerpo(),
+                            registro.getHashSolicitud(), registro.getFechaCreacion()
+                    )
+            );
+        }
+    }
+
+    @Override
+    @Scheduled(cron = "0 15 * * * *")
+    @Transactional
+    public void eliminarVencidos() {
+        this.repository.eliminarAnterioresA(
+                LocalDateTime.now().minus(this.idempotenciaCache.getTtl())
+        );
+    }
+
+    /**
+     * Una cabecera por línea, como en HTTP: los valores no pueden contener saltos
+     * de línea. Sin cabeceras se guarda null.
+     */
+    private static String aTexto(HttpHeaders cabeceras) {
+        if (cabeceras.isEmpty())
+            return null;
+        StringBuilder texto = new StringBuilder();
+        cabeceras.forEach((nombre, valores) -> valores.forEach(
+                valor -> texto.append(nombre).append(": ").append(valor).append('\n')
+        ));
+        return texto.toString();
+    }
+
+    private static HttpHeaders deTexto(String texto) {
+        HttpHeaders cabeceras = new HttpHeaders();
+        if (texto == null)
+            return cabeceras;
+        for (String linea : texto.split("\n")) {
+            int separador = linea.indexOf(':');
+            if (separador > 0)
+                cabeceras.add(linea.substring(0, separador), linea.substring(separador + 1).strip());
+        }
+        return cabeceras;
+    }
+}
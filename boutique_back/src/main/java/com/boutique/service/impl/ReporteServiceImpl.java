@@ -1,21 +1,39 @@
 package com.boutique.service.impl;
 
-import com.boutique.entity.Venta;
+import com.boutique.entity.dto.CarteraCreditoDto;
+import com.boutique.entity.dto.CarteraCreditoResumenDto;
 import com.boutique.entity.dto.ProductoVendidoDTO;
 import com.boutique.entity.dto.ProductoVentaMesDto;
 import com.boutique.entity.dto.VentaEstadisticaDto;
 import com.boutique.entity.dto.VentaSimpleDto;
 import com.boutique.entity.enums.*;
+import com.boutique.repository.CreditoRepository;
+import com.boutique.repository.CuotaRepository;
 import com.boutique.repository.ProductoRepository;
 import com.boutique.repository.VentaRepository;
 import com.boutique.service.ReporteService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @author GERSON
@@ -27,6 +45,20 @@ public class ReporteServiceImpl implements ReporteService {
     private VentaRepository ventaRepository;
     @Autowired
     private ProductoRepository productoRepository;
+    @Autowired
+    private CreditoRepository creditoRepository;
+    @Autowired
+    private CuotaRepository cuotaRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static final int FILAS_POR_ENVIO = 500;
+    private static final int MAX_SEMANAS_COBRANZA = 52;
+    // Valores de GROUPING(sucursal, plan) en CreditoRepository.resumirCartera
+    private static final int NIVEL_SUCURSAL_Y_PLAN = 0;
+    private static final int NIVEL_SUCURSAL = 1;
+    private static final int NIVEL_PLAN = 2;
+    private static final int NIVEL_TOTAL = 3;
 
     @Override
     public List<VentaSimpleDto> generarReporteVentas(
@@ -34,12 +66,43 @@ public class ReporteServiceImpl implements ReporteService {
             EstadoVenta estadoVenta, LocalDate desde, LocalDate hasta,
             TipoVenta tipoVenta
     ) {
-        List<Venta> ventas = this.ventaRepository.findVentasConFiltros(
+        return this.ventaRepository.findVentasConFiltros(
                 estadoVenta, null,
                 tipoPago, desde, hasta, montoMinimo, montoMaximo, tipoVenta
         );
+    }
+
+    /**
+     * Escribe el reporte de ventas fila por fila a medida que se leen del cursor,
+     * de modo que la memoria usada no depende de la cantidad de ventas.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportarReporteVentas(
+            BigDecimal montoMinimo, BigDecimal montoMaximo, TipoPago tipoPago,
+            EstadoVenta estadoVenta, LocalDate desde, LocalDate hasta,
+            TipoVenta tipoVenta, FormatoReporte formato, OutputStream salida
+    ) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        if (formato == FormatoReporte.CSV)
+            writer.write("id,fecha,hora,total,tipoVenta,tipoPago,estado,clienteNombre\n");
 
-        return ventas.stream().map(VentaSimpleDto::toDto).toList();
+        try (Stream<VentaSimpleDto> ventas = this.ventaRepository.streamVentasConFiltros(
+                estadoVenta, null,
+                tipoPago, desde, hasta, montoMinimo, montoMaximo, tipoVenta
+        )) {
+            Iterator<VentaSimpleDto> iterador = ventas.iterator();
+            int filas = 0;
+            while (iterador.hasNext()) {
+                VentaSimpleDto venta = iterador.next();
+                writer.write(formato == FormatoReporte.CSV ? aCsv(venta) : aJson(venta));
+                writer.write('\n');
+                // Se envía al cliente por tramos en lugar de acumular todo el reporte
+                if (++filas % FILAS_POR_ENVIO == 0)
+                    writer.flush();
+            }
+        }
+        writer.flush();
     }
 
     @Override
@@ -61,35 +124,16 @@ public class ReporteServiceImpl implements ReporteService {
             String orden,
             Integer limite
     ) {
-        // Convertir Enums a String para la query nativa
-        List<Object[]> resultados = productoRepository.findProductosMasVendidos(
-                desde,
-                hasta,
-                marca != null ? marca.name() : null,
-                genero != null ? genero.name() : null,
-                tipoPrenda != null ? tipoPrenda.name() : null,
-                talla != null ? talla.name() : null,
-                temporada != null ? temporada.name() : null,
-                estilo != null ? estilo.name() : null,
-                material != null ? material.name() : null,
-                uso != null ? uso.name() : null,
-                tipoVenta != null ? tipoVenta.name() : null,
-                tipoPago != null ? tipoPago.name() : null,
-                estadoVenta != null ? estadoVenta.name() : null,
-                ordenarPor,
-                orden,
-                limite
+        return this.productoRepository.findProductosMasVendidos(
+                desde, hasta, marca, genero, tipoPrenda, talla, temporada, estilo,
+                material, uso, tipoVenta, tipoPago, estadoVenta, ordenarPor, orden, limite
         );
-        return resultados.stream()
-                .map(this::mapearADTO)
-                .collect(Collectors.toList());
     }
 
     @Override
     public List<ProductoVentaMesDto> generarReporteProductosMensual(
             LocalDate desde, LocalDate hasta
     ) {
-        // Convertir Enums a String para la query nativa
         List<Object[]> resultados = productoRepository.findVentasMensuales(
                 desde,
                 hasta
@@ -105,20 +149,58 @@ public class ReporteServiceImpl implements ReporteService {
         return this.ventaRepository.contarVentasPorMes(fechaLimite, idSucursal);
     }
 
-    private ProductoVendidoDTO mapearADTO(Object[] row) {
-        return ProductoVendidoDTO.builder()
-                .productoId(((Number) row[0]).longValue())
-                .productoNombre((String) row[1])
-                .marca((String) row[2])
-                .precio((BigDecimal) row[3])
-                .cantidadVendida(((Number) row[4]).intValue())
-                .totalVentas((BigDecimal) row[5])
-                .genero((String) row[6])
-                .tipoPrenda((String) row[7])
-                .talla((String) row[8])
+    /**
+     * Resumen de la cartera de créditos calculado en la base de datos: una consulta
+     * agrupada sobre credito para los totales y otra sobre las cuotas pendientes de
+     * las próximas semanas para la cobranza esperada.
+     * @param semanas Semanas de cobranza a proyectar desde la semana actual.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CarteraCreditoDto generarReporteCarteraCreditos(Long idSucursal, Integer semanas) {
+        if (semanas == null || semanas < 1 || semanas > MAX_SEMANAS_COBRANZA)
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Las semanas de cobranza deben estar entre 1 y " + MAX_SEMANAS_COBRANZA + "."
+            );
+
+        LocalDate hoy = LocalDate.now();
+        LocalDate inicioSemana = hoy.with(DayOfWeek.MONDAY);
+        Map<Integer, List<CarteraCreditoResumenDto>> porNivel =
+                this.creditoRepository.resumirCartera(idSucursal).stream()
+                        .collect(Collectors.groupingBy(CarteraCreditoResumenDto::getNivel));
+
+        return CarteraCreditoDto.builder()
+                .fechaCorte(hoy)
+                .total(porNivel.getOrDefault(NIVEL_TOTAL, List.of()).stream()
+                        .findFirst()
+                        .orElse(null))
+                .porSucursal(porNivel.getOrDefault(NIVEL_SUCURSAL, List.of()))
+                .porPlan(porNivel.getOrDefault(NIVEL_PLAN, List.of()))
+                .porSucursalYPlan(porNivel.getOrDefault(NIVEL_SUCURSAL_Y_PLAN, List.of()))
+                .cobranzaSemanal(this.cuotaRepository.sumarCobranzaPorSemana(
+                        inicioSemana, inicioSemana.plusWeeks(semanas), idSucursal
+                ))
                 .build();
     }
 
+    private String aCsv(VentaSimpleDto venta) {
+        return String.join(",",
+                String.valueOf(venta.getId()),
+                String.valueOf(venta.getFecha()),
+                String.valueOf(venta.getHora()),
+                String.valueOf(venta.getTotal()),
+                String.valueOf(venta.getTipoVenta()),
+                String.valueOf(venta.getTipoPago()),
+                String.valueOf(venta.getEstado()),
+                "\"" + venta.getClienteNombre().replace("\"", "\"\"") + "\""
+        );
+    }
+
+    private String aJson(VentaSimpleDto venta) throws JsonProcessingException {
+        return this.objectMapper.writeValueAsString(venta);
+    }
+
     private ProductoVentaMesDto aDTO(Object[] row) {
         return ProductoVentaMesDto.builder()
                 .productoId(((Number) row[0]).longValue())
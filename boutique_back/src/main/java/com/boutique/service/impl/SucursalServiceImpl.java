@@ -1,17 +1,20 @@
 package com.boutique.service.impl;
 
+import com.boutique.config.CacheConfig;
 import com.boutique.entity.Sucursal;
 import com.boutique.entity.dto.SucursalDto;
 import com.boutique.repository.SucursalRepository;
 import com.boutique.service.SucursalService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * @author GERSON
@@ -25,14 +28,16 @@ public class SucursalServiceImpl implements SucursalService {
     private SucursalRepository repository;
 
     @Override
+    @Cacheable(CacheConfig.SUCURSALES)
     @Transactional(readOnly = true)
     public List<SucursalDto> listarSucursales() {
         return this.repository.findAllByDeletedFalse().stream()
                 .map(SucursalDto::toDto)
-                .collect(Collectors.toList());
+                .toList();
     }
 
     @Override
+    @CacheEvict(value = CacheConfig.SUCURSALES, allEntries = true)
     @Transactional
     public SucursalDto crearSucursal(SucursalDto nuevaSucursal) {
         return SucursalDto.toDto(
@@ -43,12 +48,17 @@ public class SucursalServiceImpl implements SucursalService {
     }
 
     @Override
+    @Cacheable(CacheConfig.SUCURSAL)
     @Transactional(readOnly = true)
     public SucursalDto obtenerSucursalPorId(Long id) {
         return SucursalDto.toDto(getSucursalEntityById(id));
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.SUCURSALES, allEntries = true),
+            @CacheEvict(value = CacheConfig.SUCURSAL, key = "#id")
+    })
     @Transactional
     public SucursalDto actualizarSucursal(Long id, SucursalDto nuevaSucursal) {
         Sucursal sucursalExistente = getSucursalEntityById(id);
@@ -61,6 +71,10 @@ public class SucursalServiceImpl implements SucursalService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.SUCURSALES, allEntries = true),
+            @CacheEvict(value = CacheConfig.SUCURSAL, key = "#id")
+    })
     @Transactional
     public void eliminarSucursal(Long id) {
         Sucursal sucursal = getSucursalEntityById(id);
@@ -1,5 +1,6 @@
 package com.boutique.service.impl;
 
+import com.boutique.cache.UsuarioCache;
 import com.boutique.entity.dto.NuevoUsuario;
 import com.boutique.entity.Usuario;
 import com.boutique.entity.dto.UsuarioDto;
@@ -33,6 +34,8 @@ public class UsuarioServiceImpl implements UsuarioService {
     private ClienteRepository clienteRepository;
     @Autowired
     private EmpleadoRepository empleadoRepository;
+    @Autowired
+    private UsuarioCache usuarioCache;
 
     @Override
     @Transactional(readOnly = true)
@@ -64,6 +67,7 @@ public class UsuarioServiceImpl implements UsuarioService {
         Usuario usuario = verificarUsuarioInexistente(username);
         usuario.setActivo(false);
         usuarioRepository.save(usuario);
+        usuarioCache.invalidar(username);
     }
 
     @Override
@@ -72,6 +76,7 @@ public class UsuarioServiceImpl implements UsuarioService {
         Usuario usuario = verificarUsuarioInexistente(username);
         usuario.setPassword(passwordEncoder.encode(newPassword));
         usuarioRepository.save(usuario);
+        usuarioCache.invalidar(username);
     }
 
     @Override
@@ -84,6 +89,7 @@ public class UsuarioServiceImpl implements UsuarioService {
                     "El ID de usuario no existe: " + id);
 
         Usuario usuarioExistente = usuarioOpt.get();
+        usuarioCache.invalidar(usuarioExistente.getUsername());
 
         if (usuarioNuevo.getUsername() != null && !usuarioNuevo.getUsername().isBlank()) {
             if (!usuarioExistente.getUsername().equals(usuarioNuevo.getUsername())) {
@@ -110,6 +116,7 @@ public class UsuarioServiceImpl implements UsuarioService {
         Usuario usuario = usuarioOpt.get();
         usuario.setActivo(false);
         usuarioRepository.save(usuario);
+        usuarioCache.invalidar(usuario.getUsername());
     }
 
     private void verificarUsuarioExistente(String username) {
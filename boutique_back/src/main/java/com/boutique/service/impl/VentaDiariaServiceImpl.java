@@ -0,0 +1,109 @@
+package com.boutique.service.impl;
+
+import com.boutique.config.EventosConfig;
+import com.boutique.entity.EventoDominio;
+import com.boutique.entity.enums.EstadoVenta;
+import com.boutique.repository.EventoDominioRepository;
+import com.boutique.repository.VentaDiariaProductoRepository;
+import com.boutique.repository.VentaRepository;
+import com.boutique.service.VentaDiariaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Mantiene la tabla venta_diaria_producto al día con cada cambio de las ventas.
+ *
+ * Los cambios llegan como eventos de dominio después del commit de la venta o del
+ * pago, en un hilo virtual y en su propia transacción, así el resumen no alarga
+ * la transacción de la venta.
+ * @author GERSON
+ */
+
+@Service
+@Transactional
+public class VentaDiariaServiceImpl implements VentaDiariaService {
+    @Autowired
+    private VentaDiariaProductoRepository repository;
+    @Autowired
+    private VentaRepository ventaRepository;
+    @Autowired
+    private EventoDominioRepository eventoDominioRepository;
+
+    @Override
+    @Transactional
+    public void registrarVenta(Long idVenta, EstadoVenta estado) {
+        this.repository.acumularVenta(idVenta, estado.name(), 1);
+    }
+
+    @Override
+    @Transactional
+    public void cambiarEstadoVenta(
+            Long idVenta, EstadoVenta estadoAnterior, EstadoVenta estadoNuevo
+    ) {
+        if (estadoAnterior == estadoNuevo)
+            return;
+
+        this.repository.acumularVenta(idVenta, estadoAnterior.name(), -1);
+        this.repository.acumularVenta(idVenta, estadoNuevo.name(), 1);
+    }
+
+    /**
+     * El resumen reconstruido ya incluye los eventos confirmados que faltaban
+     * aplicar; se marcan como procesados para no contarlos dos veces. Con la tabla
+     * de eventos bloqueada y una sola foto de la base para las tres sentencias,
+     * una venta confirmada a mitad de camino no entra en el resumen ni queda su
+     * evento marcado: se aplica después, una sola vez.
+     */
+    @Override
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public void reconstruirResumen() {
+        this.eventoDominioRepository.bloquear();
+        this.eventoDominioRepository.marcarPendientesProcesados(LocalDateTime.now());
+        this.repository.deleteAllInBatch();
+        this.repository.reconstruir();
+    }
+
+    /**
+     * Aplica el evento al resumen si nadie lo aplicó antes. Se invoca después del
+     * commit que lo produjo y, para los que quedaron pendientes, desde el reenvío
+     * periódico; marcarlo y aplicarlo van en la misma transacción.
+     */
+    @Override
+    @Async(EventosConfig.EJECUTOR_EVENTOS)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void procesarEvento(EventoDominio evento) {
+        if (this.eventoDominioRepository.reclamar(evento.getId(), LocalDateTime.now()) == 0)
+            return;
+
+        switch (evento.getTipo()) {
+            case VENTA_CREADA -> this.registrarVenta(evento.getIdVenta(), evento.getEstadoNuevo());
+            case VENTA_COMPLETADA, VENTA_CANCELADA -> this.cambiarEstadoVenta(
+                    evento.getIdVenta(), evento.getEstadoAnterior(), evento.getEstadoNuevo()
+            );
+            // Un pago sin cambio de estado no modifica el resumen
+            case PAGO_APLICADO -> { }
+        }
+    }
+
+    /**
+     * En una base con ventas anteriores al resumen, lo llena una única vez al arrancar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public void inicializarResumen() {
+        this.eventoDominioRepository.bloquear();
+        if (this.repository.count() == 0 && this.ventaRepository.count() > 0)
+            this.reconstruirResumen();
+    }
+}
@@ -1,5 +1,6 @@
 package com.boutique.service.impl;
 
+import com.boutique.entity.EventoDominio;
 import com.boutique.entity.Pago;
 import com.boutique.entity.Venta;
 import com.boutique.entity.dto.CreditoDto;
@@ -7,10 +8,13 @@ import com.boutique.entity.dto.DetalleVentaDto;
 import com.boutique.entity.dto.VentaDetalleDto;
 import com.boutique.entity.dto.VentaSimpleDto;
 import com.boutique.entity.enums.EstadoVenta;
+import com.boutique.entity.enums.TipoEventoDominio;
 import com.boutique.entity.enums.TipoPago;
 import com.boutique.repository.VentaRepository;
+import com.boutique.service.CobranzaService;
 import com.boutique.service.CreditoService;
 import com.boutique.service.DetalleVentaService;
+import com.boutique.service.EventoDominioService;
 import com.boutique.service.VentaService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -35,14 +39,17 @@ public class VentaServiceImpl implements VentaService {
     private DetalleVentaService detalleVentaService;
     @Autowired
     private CreditoService creditoService;
+    @Autowired
+    private EventoDominioService eventoDominioService;
+    @Autowired
+    private CobranzaService cobranzaService;
 
     @Override
     @Transactional(readOnly = true)
     public Page<VentaSimpleDto> listarVentasCompletadas(
             Long idSucursal, Pageable pageable
     ) {
-        return this.repository.findVentas(EstadoVenta.COMPLETADA, idSucursal, pageable)
-                .map(VentaSimpleDto::toDto);
+        return this.repository.findVentas(EstadoVenta.COMPLETADA, idSucursal, pageable);
     }
 
     @Override
@@ -50,8 +57,7 @@ public class VentaServiceImpl implements VentaService {
     public Page<VentaSimpleDto> listarVentasCanceladas(
             Long idSucursal, Pageable pageable
     ) {
-        return this.repository.findVentas(EstadoVenta.CANCELADA, idSucursal, pageable)
-                .map(VentaSimpleDto::toDto);
+        return this.repository.findVentas(EstadoVenta.CANCELADA, idSucursal, pageable);
     }
 
     @Override
@@ -59,8 +65,7 @@ public class VentaServiceImpl implements VentaService {
     public Page<VentaSimpleDto> listarVentasPendientes(
             Long idSucursal, Pageable pageable
     ) {
-        return this.repository.findVentas(EstadoVenta.PENDIENTE, idSucursal, pageable)
-                .map(VentaSimpleDto::toDto);
+        return this.repository.findVentas(EstadoVenta.PENDIENTE, idSucursal, pageable);
     }
 
     @Override
@@ -68,16 +73,14 @@ public class VentaServiceImpl implements VentaService {
     public Page<VentaSimpleDto> listarVentasEnProceso(
             Long idSucursal, Pageable pageable
     ) {
-        return this.repository.findVentas(EstadoVenta.EN_PROCESO, idSucursal, pageable)
-                .map(VentaSimpleDto::toDto);
+        return this.repository.findVentas(EstadoVenta.EN_PROCESO, idSucursal, pageable);
     }
 
     @Override
     public Page<VentaSimpleDto> listarVentasPagandoCredito(
             Long idSucursal, Pageable pageable
     ) {
-        return this.repository.findVentas(EstadoVenta.PAGANDO_CREDITO, idSucursal, pageable)
-                .map(VentaSimpleDto::toDto);
+        return this.repository.findVentas(EstadoVenta.PAGANDO_CREDITO, idSucursal, pageable);
     }
 
     @Override
@@ -85,8 +88,7 @@ public class VentaServiceImpl implements VentaService {
     public Page<VentaSimpleDto> listarVentasPorCliente(
             Long idCliente, Pageable pageable
     ) {
-        return this.repository.findByClienteId(idCliente, pageable)
-                .map(VentaSimpleDto::toDto);
+        return this.repository.findByClienteId(idCliente, pageable);
     }
 
     @Override
@@ -101,10 +103,18 @@ public class VentaServiceImpl implements VentaService {
     @Override
     @Transactional(readOnly = true)
     public VentaDetalleDto obtenerDetalleVentaPorId(Long idVenta) {
-        Venta venta = getVentaById(idVenta);
-        List<DetalleVentaDto> detalles = this.detalleVentaService
-                .listarDetallesVentaPorVenta(idVenta);
-        CreditoDto credito = this.creditoService.obtenerCreditoPorVenta(idVenta);
+        // Una consulta para la venta y sus relaciones, y otra para las cuotas
+        Venta venta = this.repository.findDetalleById(idVenta)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND,
+                        "Venta no encontrada con ID: " + idVenta)
+                );
+        List<DetalleVentaDto> detalles = venta.getDetalles().stream()
+                .map(DetalleVentaDto::toDto)
+                .toList();
+        CreditoDto credito = venta.getCredito() != null
+                ? this.creditoService.obtenerCreditoConCuotas(venta.getCredito())
+                : null;
 
         return VentaDetalleDto.toDto(venta, detalles, credito);
     }
@@ -116,8 +126,14 @@ public class VentaServiceImpl implements VentaService {
         List<DetalleVentaDto> detallesVenta = this.detalleVentaService
                 .listarDetallesVentaPorVenta(idVenta);
         this.detalleVentaService.devolverDetallesVenta(detallesVenta, venta.getSucursal().getId());
+        EstadoVenta estadoAnterior = venta.getEstado();
         venta.setEstado(EstadoVenta.CANCELADA);
         this.repository.save(venta);
+        this.eventoDominioService.publicar(EventoDominio.de(
+                TipoEventoDominio.VENTA_CANCELADA, idVenta, null,
+                estadoAnterior, EstadoVenta.CANCELADA
+        ));
+        this.cobranzaService.registrarCancelacionVenta(idVenta);
     }
 
     @Override
@@ -128,11 +144,19 @@ public class VentaServiceImpl implements VentaService {
             venta.setEstado(EstadoVenta.COMPLETADA);
             venta.setPago(pago);
             this.repository.save(venta);
+            this.eventoDominioService.publicar(EventoDominio.de(
+                    TipoEventoDominio.VENTA_COMPLETADA, idVenta, pago.getId(),
+                    EstadoVenta.PENDIENTE, EstadoVenta.COMPLETADA
+            ));
         }
 
         if (venta.getEstado() == EstadoVenta.PAGANDO_CREDITO) {
             venta.setEstado(EstadoVenta.COMPLETADA);
             this.repository.save(venta);
+            this.eventoDominioService.publicar(EventoDominio.de(
+                    TipoEventoDominio.VENTA_COMPLETADA, idVenta, pago != null ? pago.getId() : null,
+                    EstadoVenta.PAGANDO_CREDITO, EstadoVenta.COMPLETADA
+            ));
         }
     }
 
@@ -145,6 +169,7 @@ public class VentaServiceImpl implements VentaService {
                 nuevaVenta.getIdSucursal(),
                 ventaCreada
         );
+        this.publicarVentaCreada(ventaCreada);
         return VentaSimpleDto.toDto(ventaCreada);
     }
 
@@ -160,9 +185,21 @@ public class VentaServiceImpl implements VentaService {
         this.creditoService.crearCreditoParaVenta(
                 ventaCreada, nuevaVenta.getIdPlanCredito()
         );
+        this.publicarVentaCreada(ventaCreada);
         return VentaSimpleDto.toDto(ventaCreada);
     }
 
+    /**
+     * Los efectos posteriores a la venta (resumen de reportes, etc.) se aplican
+     * después del commit a partir de este evento, fuera de esta transacción.
+     */
+    private void publicarVentaCreada(Venta venta) {
+        this.eventoDominioService.publicar(EventoDominio.de(
+                TipoEventoDominio.VENTA_CREADA, venta.getId(), null,
+                null, venta.getEstado()
+        ));
+    }
+
     private Venta getVentaById(Long id) {
         return this.repository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(
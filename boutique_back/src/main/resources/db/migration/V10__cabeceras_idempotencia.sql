@@ -0,0 +1,4 @@
+-- Cabeceras de la respuesta original (Location, por ejemplo), una por línea como
+-- "Nombre: valor", para devolverlas también al repetir la petición. Los
+-- registros anteriores quedan sin cabeceras.
+alter table registro_idempotencia add column if not exists cabeceras text;
@@ -0,0 +1,17 @@
+-- Resumen diario de ventas por producto, sucursal, tipo de venta, tipo de pago
+-- y estado. No forma parte de la línea base: las bases existentes se toman como
+-- versión 1 sin esta tabla, y aquí se crea antes de que V2 la indexe.
+create table if not exists venta_diaria_producto (
+    fecha date not null,
+    total numeric(14,2) not null,
+    cantidad bigint not null,
+    id bigint generated by default as identity,
+    producto_id bigint not null,
+    sucursal_id bigint not null,
+    estado varchar(20) not null check (estado in ('PENDIENTE','COMPLETADA','CANCELADA','EN_PROCESO','PAGANDO_CREDITO')),
+    tipo_pago varchar(20) not null check (tipo_pago in ('CONTADO','CREDITO')),
+    tipo_venta varchar(20) not null check (tipo_venta in ('FISICA','ONLINE')),
+    primary key (id),
+    constraint uk_venta_diaria_producto unique (producto_id, sucursal_id, fecha, tipo_venta, tipo_pago, estado),
+    constraint fk_venta_diaria_producto_producto foreign key (producto_id) references producto
+);
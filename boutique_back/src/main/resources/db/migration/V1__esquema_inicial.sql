@@ -0,0 +1,225 @@
+-- Esquema inicial, equivalente al que generaba Hibernate con ddl-auto: update.
+-- Las bases existentes se toman como línea base en esta versión (baseline-on-migrate).
+
+create table cliente (
+    deleted boolean not null,
+    id bigint not null,
+    usuario_id bigint unique,
+    primary key (id)
+);
+
+create table credito (
+    cuotas_pagadas smallint not null,
+    fecha_inicio date not null,
+    monto_cuota numeric(10,2) not null,
+    monto_total numeric(10,2) not null,
+    numero_cuotas smallint not null,
+    plan_credito_id smallint not null,
+    saldo_pendiente numeric(10,2) not null,
+    id bigint generated by default as identity,
+    venta_id bigint not null unique,
+    primary key (id)
+);
+
+create table cuota (
+    fecha_pago date,
+    fecha_vencimiento date not null,
+    monto numeric(10,2) not null,
+    numero smallint not null,
+    pagada boolean not null,
+    credito_id bigint not null,
+    id bigint generated by default as identity,
+    pago_id bigint unique,
+    primary key (id)
+);
+
+create table detalle_venta (
+    cantidad integer not null,
+    precio_unitario numeric(10,2) not null,
+    sub_total numeric(10,2) not null,
+    id bigint generated by default as identity,
+    producto_id bigint not null,
+    venta_id bigint not null,
+    primary key (id)
+);
+
+create table empleado (
+    deleted boolean not null,
+    id bigint not null,
+    sucursal_id bigint not null,
+    usuario_id bigint not null unique,
+    cargo varchar(20) not null check (cargo in ('GERENTE','VENDEDOR','CAJERO','INVENTARISTA')),
+    primary key (id)
+);
+
+create table inventario (
+    cantidad integer not null,
+    id bigint generated by default as identity,
+    producto_id bigint not null,
+    sucursal_id bigint not null,
+    primary key (id)
+);
+
+create table pago (
+    fecha date not null,
+    hora time(6) not null,
+    monto numeric(10,2) not null,
+    id bigint generated by default as identity,
+    estado varchar(20) not null check (estado in ('PENDIENTE','COMPLETADO','FALLIDO')),
+    metodo_pago varchar(20) not null check (metodo_pago in ('EFECTIVO','TARJETA','QR')),
+    pago_de varchar(20),
+    primary key (id)
+);
+
+create table persona (
+    fecha_nacimiento date,
+    id bigint generated by default as identity,
+    apellido varchar(255) not null,
+    ci varchar(255) not null,
+    correo varchar(255),
+    direccion varchar(255),
+    nombre varchar(255) not null,
+    telefono varchar(255),
+    primary key (id)
+);
+
+create table plan_credito (
+    activo boolean not null,
+    id smallint generated by default as identity,
+    interes_anual numeric(5,2) not null,
+    plazo smallint not null,
+    frecuencia varchar(20) not null check (frecuencia in ('SEMANAL','QUINCENAL','MENSUAL')),
+    nombre varchar(50) not null,
+    descripcion varchar(100) not null,
+    primary key (id)
+);
+
+create table producto (
+    precio numeric(10,2) not null,
+    id bigint generated by default as identity,
+    estilo varchar(20) check (estilo in ('CASUAL','FORMAL','DEPORTIVO','ELEGANTE','VINTAGE','BOHEMIO','ROCKERO','URBANO','PREPPY','MINIMALISTA','NOCTURNO')),
+    genero varchar(20) not null check (genero in ('HOMBRE','MUJER','NINO','NINA','UNISEX')),
+    marca varchar(20) not null check (marca in ('NIKE','NEW_BALANCE','CAT','LEE','SKECHERS','CONVERSE','ADIDAS','PUMA','CREP_PROTECT','DKNY','UNDER_ARMOUR','REEBOK','LEVIS','EVERLAST')),
+    material varchar(20) not null check (material in ('ALGODON','LINO','LANA','SEDA','CUERO','DENIM','POLIESTER','NYLON','VISCOSA','LYCRA','RAYON','CACHEMIRA','TERCIOPELO','ACRILICO')),
+    talla varchar(20) check (talla in ('XS','S','M','L','XL','XXL','XXXL','TALLA_UNICA','NUM_6','NUM_7','NUM_7_5','NUM_8','NUM_8_5','NUM_9','NUM_9_5','NUM_10','NUM_11')),
+    temporada varchar(20) check (temporada in ('PRIMAVERA','VERANO','OTONO','INVIERNO')),
+    tipo_prenda varchar(20) not null check (tipo_prenda in ('CAMISETA','CAMISA','BLUSA','SUDADERA','SUETER','PANTALON','FALDA','SHORT','LEGGIN','JEANS','VESTIDO','CHAQUETA','ABRIGO','SUJETADOR','BOXER','CALZONCILLO','TANGA','LENCERIA','BUFANDA','SOMBRERO','GUANTES','BOLSO','ZAPATOS','BOTAS','SANDALIAS','ZAPATILLAS','BIKINI','BANADOR')),
+    uso varchar(20) not null check (uso in ('DIARIO','OCASIONAL','DEPORTIVO','FORMAL','FIESTA')),
+    nombre varchar(100) not null,
+    imagen_url varchar(200),
+    descripcion TEXT,
+    primary key (id)
+);
+
+create table sucursal (
+    deleted boolean not null,
+    id bigint generated by default as identity,
+    direccion varchar(255) not null,
+    nombre varchar(255) not null,
+    telefono varchar(255) not null,
+    primary key (id)
+);
+
+create table usuario (
+    activo boolean not null,
+    id bigint generated by default as identity,
+    rol varchar(20) not null check (rol in ('ADMIN','CLIENTE','GERENTE','VENDEDOR','CAJERO','INVENTARISTA')),
+    password varchar(255) not null,
+    username varchar(255) not null unique,
+    primary key (id)
+);
+
+create table venta (
+    fecha date not null,
+    hora time(6) not null,
+    total numeric(10,2) not null,
+    cliente_id bigint not null,
+    id bigint generated by default as identity,
+    pago_id bigint unique,
+    sucursal_id bigint,
+    estado varchar(20) not null check (estado in ('PENDIENTE','COMPLETADA','CANCELADA','EN_PROCESO','PAGANDO_CREDITO')),
+    tipo_pago varchar(20) not null check (tipo_pago in ('CONTADO','CREDITO')),
+    tipo_venta varchar(20) not null check (tipo_venta in ('FISICA','ONLINE')),
+    observaciones varchar(255),
+    primary key (id)
+);
+
+alter table cliente
+   add constraint fk_cliente_usuario
+   foreign key (usuario_id)
+   references usuario;
+
+alter table cliente
+   add constraint fk_cliente_persona
+   foreign key (id)
+   references persona;
+
+alter table credito
+   add constraint fk_credito_plan_credito
+   foreign key (plan_credito_id)
+   references plan_credito;
+
+alter table credito
+   add constraint fk_credito_venta
+   foreign key (venta_id)
+   references venta;
+
+alter table cuota
+   add constraint fk_cuota_credito
+   foreign key (credito_id)
+   references credito;
+
+alter table cuota
+   add constraint fk_cuota_pago
+   foreign key (pago_id)
+   references pago;
+
+alter table detalle_venta
+   add constraint fk_detalle_venta_producto
+   foreign key (producto_id)
+   references producto;
+
+alter table detalle_venta
+   add constraint fk_detalle_venta_venta
+   foreign key (venta_id)
+   references venta;
+
+alter table empleado
+   add constraint fk_empleado_sucursal
+   foreign key (sucursal_id)
+   references sucursal;
+
+alter table empleado
+   add constraint fk_empleado_usuario
+   foreign key (usuario_id)
+   references usuario;
+
+alter table empleado
+   add constraint fk_empleado_persona
+   foreign key (id)
+   references persona;
+
+alter table inventario
+   add constraint fk_inventario_producto
+   foreign key (producto_id)
+   references producto;
+
+alter table inventario
+   add constraint fk_inventario_sucursal
+   foreign key (sucursal_id)
+   references sucursal;
+
+alter table venta
+   add constraint fk_venta_cliente
+   foreign key (cliente_id)
+   references cliente;
+
+alter table venta
+   add constraint fk_venta_pago
+   foreign key (pago_id)
+   references pago;
+
+alter table venta
+   add constraint fk_venta_sucursal
+   foreign key (sucursal_id)
+   references sucursal;
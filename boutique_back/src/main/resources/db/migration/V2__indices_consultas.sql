@@ -0,0 +1,30 @@
+-- Índices para los finders más usados de com.boutique.repository.
+-- usuario(username) ya queda indexado por su restricción UNIQUE.
+
+-- InventarioRepository: búsqueda y descuento de stock por sucursal y producto
+create index if not exists idx_inventario_sucursal_producto
+    on inventario (sucursal_id, producto_id);
+
+-- VentaRepository.findVentas: listados por estado, opcionalmente por sucursal
+create index if not exists idx_venta_estado_sucursal
+    on venta (estado, sucursal_id);
+
+-- Reportes y estadísticas por rango de fechas
+create index if not exists idx_venta_fecha
+    on venta (fecha);
+
+-- VentaRepository.findByClienteId
+create index if not exists idx_venta_cliente
+    on venta (cliente_id);
+
+-- Detalles de una venta
+create index if not exists idx_detalle_venta_venta
+    on detalle_venta (venta_id);
+
+-- Cuotas de un crédito en orden
+create index if not exists idx_cuota_credito_numero
+    on cuota (credito_id, numero);
+
+-- Reportes de productos por rango de fechas sobre el resumen diario
+create index if not exists idx_venta_diaria_producto_fecha
+    on venta_diaria_producto (fecha);
@@ -0,0 +1,8 @@
+-- Cuota pasa de IDENTITY a una secuencia con incremento 50 (optimizador pooled
+-- de Hibernate), para que las cuotas de un crédito se inserten en un solo lote.
+create sequence if not exists cuota_seq increment by 50;
+
+-- El primer valor es el tope del primer bloque: los ids nuevos siguen al máximo actual
+select setval('cuota_seq', coalesce((select max(id) from cuota), 0) + 50, false);
+
+alter table cuota alter column id drop identity if exists;
@@ -0,0 +1,5 @@
+-- Índice parcial sólo con las cuotas sin pagar, ordenado por vencimiento.
+-- Lo usa el recálculo de la cartera vencida; las cuotas pagadas no ocupan espacio.
+create index if not exists idx_cuota_pendiente_vencimiento
+    on cuota (fecha_vencimiento)
+    where pagada = false;
@@ -0,0 +1,2 @@
+-- Control de concurrencia optimista para el pago de cuotas
+alter table cuota add column if not exists version bigint not null default 0;
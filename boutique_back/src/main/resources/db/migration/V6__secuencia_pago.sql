@@ -0,0 +1,8 @@
+-- Pago pasa de IDENTITY a una secuencia con incremento 50 (optimizador pooled
+-- de Hibernate), para insertar en lote los pagos de la carga masiva.
+create sequence if not exists pago_seq increment by 50;
+
+-- El primer valor es el tope del primer bloque: los ids nuevos siguen al máximo actual
+select setval('pago_seq', coalesce((select max(id) from pago), 0) + 50, false);
+
+alter table pago alter column id drop identity if exists;
@@ -0,0 +1,16 @@
+-- Respuestas ya entregadas por clave de idempotencia, para no volver a ejecutar
+-- un POST repetido por el punto de venta. Se escribe de forma asíncrona y sólo se
+-- lee al arrancar, para precargar la caché en memoria.
+create table if not exists registro_idempotencia (
+    id bigint generated by default as identity primary key,
+    ruta varchar(100) not null,
+    clave varchar(100) not null,
+    estado smallint not null,
+    tipo_contenido varchar(100),
+    cuerpo bytea not null,
+    fecha_creacion timestamp(6) not null,
+    constraint uk_registro_idempotencia unique (ruta, clave)
+);
+
+create index if not exists idx_registro_idempotencia_fecha
+    on registro_idempotencia (fecha_creacion);
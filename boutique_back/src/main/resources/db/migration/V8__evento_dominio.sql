@@ -0,0 +1,19 @@
+-- Outbox de eventos de dominio: se inserta en la misma transacción que la venta
+-- o el pago, y el resumen venta_diaria_producto se actualiza después del commit.
+create sequence if not exists evento_dominio_seq increment by 50;
+
+create table if not exists evento_dominio (
+    id bigint primary key,
+    tipo varchar(30) not null check (tipo in ('VENTA_CREADA','VENTA_COMPLETADA','VENTA_CANCELADA','PAGO_APLICADO')),
+    venta_id bigint not null,
+    pago_id bigint,
+    estado_anterior varchar(20),
+    estado_nuevo varchar(20),
+    fecha_creacion timestamp(6) not null,
+    fecha_procesado timestamp(6)
+);
+
+-- Sólo los eventos pendientes, que son los que busca el reenvío periódico
+create index if not exists idx_evento_dominio_pendiente
+    on evento_dominio (fecha_creacion)
+    where fecha_procesado is null;
@@ -0,0 +1,9 @@
+-- Las claves de idempotencia se reconocen por usuario: la misma clave enviada
+-- por otro usuario es otra petición. hash_solicitud es el SHA-256 del cuerpo
+-- original; los registros anteriores quedan sin hash y con usuario vacío.
+alter table registro_idempotencia add column if not exists usuario varchar(255) not null default '';
+alter table registro_idempotencia add column if not exists hash_solicitud bytea;
+
+alter table registro_idempotencia drop constraint if exists uk_registro_idempotencia;
+alter table registro_idempotencia
+    add constraint uk_registro_idempotencia unique (usuario, ruta, clave);
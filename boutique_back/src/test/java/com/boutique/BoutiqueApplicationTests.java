@@ -1,9 +1,8 @@
 package com.boutique;
 
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@PruebaIntegracion
 class BoutiqueApplicationTests {
 
 	@Test
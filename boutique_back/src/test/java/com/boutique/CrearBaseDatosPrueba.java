@@ -0,0 +1,61 @@
+package com.boutique;
+
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Crea la base de datos de pruebas (spring.datasource.url del perfil test) si
+ * todavía no existe, conectándose a la base de mantenimiento postgres del mismo
+ * servidor. Corre antes de que arranque el pool de conexiones y Flyway.
+ * @author GERSON
+ */
+
+public class CrearBaseDatosPrueba implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+    private static final String PREFIJO = "jdbc:postgresql://";
+
+    @Override
+    public void initialize(ConfigurableApplicationContext context) {
+        Environment env = context.getEnvironment();
+        String url = env.getRequiredProperty("spring.datasource.url");
+        if (!url.startsWith(PREFIJO))
+            return;
+
+        // jdbc:postgresql://host:puerto/base?parametros
+        String resto = url.substring(PREFIJO.length());
+        int barra = resto.indexOf('/');
+        int fin = resto.indexOf('?', barra);
+        String servidor = resto.substring(0, barra);
+        String base = fin < 0 ? resto.substring(barra + 1) : resto.substring(barra + 1, fin);
+
+        try (Connection conexion = DriverManager.getConnection(
+                PREFIJO + servidor + "/postgres",
+                env.getProperty("spring.datasource.username"),
+                env.getProperty("spring.datasource.password"))) {
+            if (!existe(conexion, base)) {
+                try (Statement sentencia = conexion.createStatement()) {
+                    sentencia.execute("create database \"" + base.replace("\"", "\"\"") + "\"");
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo preparar la base de pruebas " + base, e);
+        }
+    }
+
+    private static boolean existe(Connection conexion, String base) throws SQLException {
+        try (PreparedStatement consulta = conexion.prepareStatement(
+                "select 1 from pg_database where datname = ?")) {
+            consulta.setString(1, base);
+            try (ResultSet filas = consulta.executeQuery()) {
+                return filas.next();
+            }
+        }
+    }
+}
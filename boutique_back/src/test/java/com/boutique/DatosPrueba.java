@@ -0,0 +1,201 @@
+package com.boutique;
+
+import com.boutique.entity.Cliente;
+import com.boutique.entity.Inventario;
+import com.boutique.entity.PlanCredito;
+import com.boutique.entity.Producto;
+import com.boutique.entity.Sucursal;
+import com.boutique.entity.dto.DetalleVentaDto;
+import com.boutique.entity.dto.VentaDetalleDto;
+import com.boutique.entity.enums.*;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Datos propios de cada prueba: sucursal, productos con inventario, cliente y
+ * plan de crédito. Los métodos de alta necesitan una transacción activa; las
+ * pruebas que confirman sus datos los borran con eliminar(), para que cada una
+ * parta de la base de pruebas sin restos de las anteriores.
+ * @author GERSON
+ */
+
+@TestComponent
+public class DatosPrueba {
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public Sucursal sucursal() {
+        Sucursal sucursal = new Sucursal();
+        sucursal.setNombre("Sucursal prueba " + sufijo());
+        sucursal.setDireccion("Calle de prueba");
+        sucursal.setTelefono("70000000");
+        sucursal.setDeleted(false);
+        this.entityManager.persist(sucursal);
+        return sucursal;
+    }
+
+    public Producto producto(Sucursal sucursal, String precio, int stock) {
+        Producto producto = Producto.builder()
+                .nombre("Producto prueba " + sufijo())
+                .precio(new BigDecimal(precio))
+                .marca(Marca.NIKE)
+                .genero(Genero.MUJER)
+                .tipoPrenda(TipoPrenda.BLUSA)
+                .material(Material.ALGODON)
+                .uso(Uso.DIARIO)
+                .build();
+        this.entityManager.persist(producto);
+        this.entityManager.persist(Inventario.builder()
+                .cantidad(stock)
+                .sucursal(sucursal)
+                .producto(producto)
+                .build());
+        return producto;
+    }
+
+    public Cliente cliente() {
+        return cliente("Cliente", "Prueba");
+    }
+
+    public Cliente cliente(String nombre, String apellido) {
+        Cliente cliente = new Cliente();
+        cliente.setCi("CI-" + sufijo());
+        cliente.setNombre(nombre);
+        cliente.setApellido(apellido);
+        cliente.setDeleted(false);
+        this.entityManager.persist(cliente);
+        return cliente;
+    }
+
+    public PlanCredito planCredito(Frecuencia frecuencia, int plazo, String interesAnual) {
+        PlanCredito plan = PlanCredito.builder()
+                .nombre("Plan prueba " + sufijo())
+                .descripcion("Plan de prueba")
+                .plazo((short) plazo)
+                .frecuencia(frecuencia)
+                .interesAnual(new BigDecimal(interesAnual))
+                .activo(true)
+                .build();
+        this.entityManager.persist(plan);
+        return plan;
+    }
+
+    /**
+     * Venta con una línea por producto al precio del producto; a crédito si se
+     * indica un plan, si no al contado.
+     */
+    public static VentaDetalleDto venta(
+            Sucursal sucursal, Cliente cliente, PlanCredito plan, Map<Producto, Integer> lineas
+    ) {
+        List<DetalleVentaDto> detalles = new ArrayList<>(lineas.size());
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<Producto, Integer> linea : lineas.entrySet()) {
+            BigDecimal subTotal = linea.getKey().getPrecio().multiply(BigDecimal.valueOf(linea.getValue()));
+            total = total.add(subTotal);
+            detalles.add(DetalleVentaDto.builder()
+                    .idProducto(linea.getKey().getId())
+                    .cantidad(linea.getValue())
+                    .precioUnitario(linea.getKey().getPrecio())
+                    .subTotal(subTotal)
+                    .build());
+        }
+        return VentaDetalleDto.builder()
+                .fecha(LocalDate.now())
+                .hora(LocalTime.now())
+                .total(total)
+                .tipoVenta(TipoVenta.FISICA)
+                .tipoPago(plan != null ? TipoPago.CREDITO : TipoPago.CONTADO)
+                .idPlanCredito(plan != null ? plan.getId() : null)
+                .idCliente(cliente.getId())
+                .idSucursal(sucursal.getId())
+                .detalles(detalles)
+                .build();
+    }
+
+    public static Map<Producto, Integer> lineas(Object... productoYCantidad) {
+        Map<Producto, Integer> lineas = new LinkedHashMap<>();
+        for (int i = 0; i < productoYCantidad.length; i += 2)
+            lineas.put((Producto) productoYCantidad[i], (Integer) productoYCantidad[i + 1]);
+        return lineas;
+    }
+
+    /**
+     * Estadísticas de Hibernate, ya puestas en cero, para contar las sentencias
+     * de la operación que sigue. Conviene vaciar antes el contexto de persistencia.
+     */
+    public Statistics estadisticas() {
+        Statistics estadisticas = this.entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        estadisticas.clear();
+        return estadisticas;
+    }
+
+    /**
+     * Borra lo creado en la sucursal (ventas, créditos, cuotas, pagos, eventos e
+     * inventario), sus productos, el cliente y el plan. Espera a que se procesen
+     * los eventos de las ventas, que actualizan el resumen diario después del commit.
+     */
+    public void eliminar(Long idSucursal, Long idCliente, Short idPlanCredito) throws InterruptedException {
+        for (int i = 0; i < 50 && this.eventosPendientes(idSucursal) > 0; i++)
+            Thread.sleep(100);
+
+        List<Long> productos = this.jdbcTemplate.queryForList(
+                "select producto_id from inventario where sucursal_id = ?", Long.class, idSucursal
+        );
+        List<Long> pagos = this.jdbcTemplate.queryForList("""
+                select cu.pago_id from cuota cu
+                join credito cr on cr.id = cu.credito_id
+                join venta v on v.id = cr.venta_id
+                where v.sucursal_id = ? and cu.pago_id is not null
+                union
+                select pago_id from venta where sucursal_id = ? and pago_id is not null
+                """, Long.class, idSucursal, idSucursal);
+        String ventas = "(select id from venta where sucursal_id = ?)";
+
+        this.jdbcTemplate.update("delete from evento_dominio where venta_id in " + ventas, idSucursal);
+        this.jdbcTemplate.update("delete from venta_diaria_producto where sucursal_id = ?", idSucursal);
+        this.jdbcTemplate.update(
+                "delete from cuota where credito_id in (select id from credito where venta_id in " + ventas + ")",
+                idSucursal
+        );
+        this.jdbcTemplate.update("delete from credito where venta_id in " + ventas, idSucursal);
+        this.jdbcTemplate.update("delete from detalle_venta where venta_id in " + ventas, idSucursal);
+        this.jdbcTemplate.update("delete from venta where sucursal_id = ?", idSucursal);
+        pagos.forEach(idPago -> this.jdbcTemplate.update("delete from pago where id = ?", idPago));
+        this.jdbcTemplate.update("delete from inventario where sucursal_id = ?", idSucursal);
+        productos.forEach(idProducto -> this.jdbcTemplate.update("delete from producto where id = ?", idProducto));
+        this.jdbcTemplate.update("delete from cliente where id = ?", idCliente);
+        this.jdbcTemplate.update("delete from persona where id = ?", idCliente);
+        if (idPlanCredito != null)
+            this.jdbcTemplate.update("delete from plan_credito where id = ?", idPlanCredito);
+        this.jdbcTemplate.update("delete from sucursal where id = ?", idSucursal);
+    }
+
+    private int eventosPendientes(Long idSucursal) {
+        return this.jdbcTemplate.queryForObject("""
+                select count(*) from evento_dominio
+                where fecha_procesado is null
+                and venta_id in (select id from venta where sucursal_id = ?)
+                """, Integer.class, idSucursal);
+    }
+
+    private static String sufijo() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+}
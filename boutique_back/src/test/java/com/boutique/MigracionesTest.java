@@ -0,0 +1,127 @@
+package com.boutique;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Las migraciones de Flyway, cada una en un esquema propio de la base de pruebas:
+ * desde un esquema vacío, desde una base anterior a las migraciones (línea base
+ * en la versión 1) y los índices que usan los finders más frecuentes.
+ * @author GERSON
+ */
+
+@PruebaIntegracion
+class MigracionesTest {
+    private static final String ESQUEMA = "migracion_prueba";
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void eliminarEsquema() {
+        this.jdbcTemplate.execute("drop schema if exists " + ESQUEMA + " cascade");
+    }
+
+    @Test
+    void migraUnEsquemaVacio() {
+        MigrateResult resultado = this.flyway(false).migrate();
+
+        assertThat(resultado.success).isTrue();
+        assertThat(resultado.initialSchemaVersion).isNull();
+        assertThat(this.tablas()).contains("venta", "cuota", "venta_diaria_producto", "evento_dominio");
+    }
+
+    @Test
+    void migraUnaBaseAnteriorALasMigraciones() throws SQLException {
+        // Una base creada por Hibernate antes de Flyway: el esquema de V1, sin historial
+        try (Connection conexion = this.dataSource.getConnection()) {
+            conexion.setAutoCommit(false);
+            try (Statement sentencia = conexion.createStatement()) {
+                sentencia.execute("create schema " + ESQUEMA);
+                sentencia.execute("set local search_path to " + ESQUEMA);
+            }
+            ScriptUtils.executeSqlScript(conexion, new ClassPathResource("db/migration/V1__esquema_inicial.sql"));
+            conexion.commit();
+        }
+        assertThat(this.tablas()).doesNotContain("venta_diaria_producto");
+
+        MigrateResult resultado = this.flyway(true).migrate();
+
+        assertThat(resultado.success).isTrue();
+        assertThat(resultado.initialSchemaVersion).isEqualTo("1");
+        assertThat(resultado.migrations).extracting(m -> m.version).startsWith("1.1", "2");
+        assertThat(this.tablas()).contains("venta_diaria_producto");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+            "idx_inventario_sucursal_producto | select cantidad from inventario where sucursal_id = 1 and producto_id = 2",
+            "idx_venta_estado_sucursal        | select id from venta where estado = 'PENDIENTE' and sucursal_id = 1",
+            "idx_venta_fecha                  | select id from venta where fecha between date '2025-01-01' and date '2025-01-31'",
+            "idx_venta_cliente                | select id from venta where cliente_id = 1",
+            "idx_detalle_venta_venta          | select id from detalle_venta where venta_id = 1",
+            "idx_cuota_credito_numero         | select id from cuota where credito_id = 1 order by numero",
+            "idx_cuota_pendiente_vencimiento  | select id from cuota where pagada = false and fecha_vencimiento < date '2025-01-01' order by fecha_vencimiento",
+            "idx_venta_diaria_producto_fecha  | select producto_id from venta_diaria_producto where fecha between date '2025-01-01' and date '2025-01-31'"
+    })
+    void losFindersUsanSuIndice(String indice, String consulta) throws SQLException {
+        this.flyway(false).migrate();
+
+        // Sin datos el planificador prefiere recorrer la tabla; se desactiva el
+        // recorrido secuencial para ver qué índice puede resolver la consulta
+        List<String> plan = new ArrayList<>();
+        try (Connection conexion = this.dataSource.getConnection()) {
+            conexion.setAutoCommit(false);
+            try (Statement sentencia = conexion.createStatement()) {
+                sentencia.execute("set local search_path to " + ESQUEMA);
+                sentencia.execute("set local enable_seqscan = off");
+                try (ResultSet filas = sentencia.executeQuery("explain " + consulta)) {
+                    while (filas.next())
+                        plan.add(filas.getString(1));
+                }
+            } finally {
+                conexion.rollback();
+            }
+        }
+
+        assertThat(String.join("\n", plan))
+                .containsPattern("(Bitmap Index Scan on|Index (Only )?Scan using) " + indice + " ");
+    }
+
+    private Flyway flyway(boolean lineaBase) {
+        return Flyway.configure()
+                .dataSource(this.dataSource)
+                .schemas(ESQUEMA)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(lineaBase)
+                .baselineVersion("1")
+                .load();
+    }
+
+    private List<String> tablas() {
+        return this.jdbcTemplate.queryForList(
+                "select table_name from information_schema.tables where table_schema = ?",
+                String.class, ESQUEMA
+        );
+    }
+}
@@ -0,0 +1,39 @@
+package com.boutique;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.core.annotation.AliasFor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Prueba contra la base de datos de pruebas del perfil test (boutique_test,
+ * creada y migrada al arrancar), nunca contra la de desarrollo, con las
+ * estadísticas de Hibernate activas para contar sentencias. Los procesos programados de
+ * cobranza y de reenvío de eventos quedan espaciados para que no ejecuten
+ * sentencias en medio de una medición.
+ * @author GERSON
+ */
+
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "cobranza.recalculo=PT24H",
+        "eventos.reenvio=PT24H"
+})
+@Import(DatosPrueba.class)
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = CrearBaseDatosPrueba.class)
+public @interface PruebaIntegracion {
+    @AliasFor(annotation = SpringBootTest.class)
+    SpringBootTest.WebEnvironment webEnvironment() default SpringBootTest.WebEnvironment.MOCK;
+}
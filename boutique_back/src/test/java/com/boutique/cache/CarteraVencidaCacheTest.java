@@ -0,0 +1,156 @@
+package com.boutique.cache;
+
+import com.boutique.entity.dto.AntiguedadCarteraDto;
+import com.boutique.entity.dto.CuotaVencidaDto;
+import com.boutique.entity.dto.TramoAntiguedadDto;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tramos de antigüedad, páginas y bajas incrementales de la cartera vencida.
+ * @author GERSON
+ */
+
+class CarteraVencidaCacheTest {
+    private static final LocalDate CORTE = LocalDate.of(2025, 6, 30);
+    private static final long SUCURSAL_A = 1L;
+    private static final long SUCURSAL_B = 2L;
+
+    private final CarteraVencidaCache cache = new CarteraVencidaCache();
+
+    @ParameterizedTest(name = "{0} días -> {1}")
+    @CsvSource({
+            "1, 1-30", "30, 1-30",
+            "31, 31-60", "60, 31-60",
+            "61, 61-90", "90, 61-90",
+            "91, 90+", "400, 90+"
+    })
+    void cadaCuotaCaeEnSuTramo(long dias, String tramo) {
+        this.cache.publicar(CORTE, List.of(cuota(1L, 10L, SUCURSAL_A, dias, "25.00")));
+
+        AntiguedadCarteraDto antiguedad = this.cache.obtenerAntiguedad(SUCURSAL_A).get(0);
+
+        assertThat(this.cache.obtenerCuotas(SUCURSAL_A, 0, 10).get(0).getDiasVencida()).isEqualTo(dias);
+        assertThat(antiguedad.getTramos())
+                .filteredOn(t -> t.getCuotas() == 1)
+                .extracting(TramoAntiguedadDto::getTramo, TramoAntiguedadDto::getMonto)
+                .containsExactly(Tuple.tuple(tramo, new BigDecimal("25.00")));
+    }
+
+    @Test
+    void paginasConservanElOrdenPorVencimiento() {
+        List<CuotaVencidaDto> cuotas = new ArrayList<>();
+        for (long id = 1; id <= 7; id++)
+            cuotas.add(cuota(id, id, id % 2 == 0 ? SUCURSAL_B : SUCURSAL_A, 100 - id, "10.00"));
+        this.cache.publicar(CORTE, cuotas);
+
+        assertThat(this.cache.contarCuotas(null)).isEqualTo(7);
+        assertThat(this.cache.obtenerCuotas(null, 0, 3))
+                .extracting(CuotaVencidaDto::getIdCuota).containsExactly(1L, 2L, 3L);
+        assertThat(this.cache.obtenerCuotas(null, 6, 3))
+                .extracting(CuotaVencidaDto::getIdCuota).containsExactly(7L);
+        assertThat(this.cache.obtenerCuotas(null, 9, 3)).isEmpty();
+
+        assertThat(this.cache.contarCuotas(SUCURSAL_A)).isEqualTo(4);
+        assertThat(this.cache.obtenerCuotas(SUCURSAL_A, 2, 2))
+                .extracting(CuotaVencidaDto::getIdCuota).containsExactly(5L, 7L);
+        assertThat(this.cache.contarCuotas(99L)).isZero();
+        assertThat(this.cache.obtenerCuotas(99L, 0, 5)).isEmpty();
+    }
+
+    @Test
+    void quitarCuotaSoloDescuentaSuTramoYSucursal() {
+        this.cache.publicar(CORTE, List.of(
+                cuota(1L, 10L, SUCURSAL_A, 10, "10.00"),
+                cuota(2L, 10L, SUCURSAL_A, 45, "20.00"),
+                cuota(3L, 11L, SUCURSAL_A, 45, "30.00"),
+                cuota(4L, 12L, SUCURSAL_B, 45, "40.00")
+        ));
+
+        this.cache.quitarCuota(2L);
+        this.cache.quitarCuota(2L);
+        this.cache.quitarCuota(99L);
+
+        assertThat(this.cache.contarCuotas(null)).isEqualTo(3);
+        assertThat(this.cache.obtenerCuotas(SUCURSAL_A, 0, 10))
+                .extracting(CuotaVencidaDto::getIdCuota).containsExactly(3L, 1L);
+        AntiguedadCarteraDto a = this.cache.obtenerAntiguedad(SUCURSAL_A).get(0);
+        assertThat(a.getTotalCuotas()).isEqualTo(2);
+        assertThat(a.getTotalMonto()).isEqualByComparingTo("40.00");
+        assertThat(a.getTramos().get(0).getCuotas()).isEqualTo(1);
+        assertThat(a.getTramos().get(1).getCuotas()).isEqualTo(1);
+        assertThat(a.getTramos().get(1).getMonto()).isEqualByComparingTo("30.00");
+        AntiguedadCarteraDto b = this.cache.obtenerAntiguedad(SUCURSAL_B).get(0);
+        assertThat(b.getTotalCuotas()).isEqualTo(1);
+        assertThat(b.getTotalMonto()).isEqualByComparingTo("40.00");
+    }
+
+    @Test
+    void quitarVentaQuitaTodasSusCuotas() {
+        this.cache.publicar(CORTE, List.of(
+                cuota(1L, 10L, SUCURSAL_A, 95, "10.00"),
+                cuota(2L, 10L, SUCURSAL_A, 65, "10.00"),
+                cuota(3L, 11L, SUCURSAL_A, 35, "10.00")
+        ));
+        this.cache.quitarCuota(1L);
+
+        this.cache.quitarVenta(10L);
+
+        assertThat(this.cache.obtenerCuotas(null, 0, 10))
+                .extracting(CuotaVencidaDto::getIdCuota).containsExactly(3L);
+        AntiguedadCarteraDto antiguedad = this.cache.obtenerAntiguedad(SUCURSAL_A).get(0);
+        assertThat(antiguedad.getTramos()).extracting(TramoAntiguedadDto::getCuotas)
+                .containsExactly(0L, 1L, 0L, 0L);
+        assertThat(antiguedad.getTotalMonto()).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    void sucursalSinCuotasNoApareceEnLaAntiguedad() {
+        this.cache.publicar(CORTE, List.of(
+                cuota(1L, 10L, SUCURSAL_A, 5, "10.00"),
+                cuota(2L, 11L, SUCURSAL_B, 5, "10.00")
+        ));
+
+        this.cache.quitarCuota(1L);
+
+        assertThat(this.cache.obtenerAntiguedad(null))
+                .extracting(AntiguedadCarteraDto::getIdSucursal).containsExactly(SUCURSAL_B);
+        assertThat(this.cache.obtenerAntiguedad(SUCURSAL_A)).isEmpty();
+    }
+
+    @Test
+    void bajasDuranteElRecalculoNoVuelvenALaCartera() {
+        this.cache.iniciarRecalculo();
+        this.cache.quitarCuota(1L);
+        this.cache.quitarVenta(20L);
+
+        this.cache.publicar(CORTE, List.of(
+                cuota(1L, 10L, SUCURSAL_A, 5, "10.00"),
+                cuota(2L, 10L, SUCURSAL_A, 5, "10.00"),
+                cuota(3L, 20L, SUCURSAL_A, 5, "10.00")
+        ));
+
+        assertThat(this.cache.obtenerCuotas(null, 0, 10))
+                .extracting(CuotaVencidaDto::getIdCuota).containsExactly(2L);
+
+        this.cache.iniciarRecalculo();
+        this.cache.publicar(CORTE, List.of(cuota(1L, 10L, SUCURSAL_A, 5, "10.00")));
+        assertThat(this.cache.contarCuotas(SUCURSAL_A)).isEqualTo(1);
+    }
+
+    private static CuotaVencidaDto cuota(long idCuota, long idVenta, long idSucursal, long dias, String monto) {
+        return new CuotaVencidaDto(
+                idCuota, idVenta, idVenta, idSucursal, "Cliente Prueba",
+                (short) 1, new BigDecimal(monto), CORTE.minusDays(dias)
+        );
+    }
+}
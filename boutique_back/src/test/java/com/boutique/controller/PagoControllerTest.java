@@ -0,0 +1,166 @@
+package com.boutique.controller;
+
+import com.boutique.DatosPrueba;
+import com.boutique.PruebaIntegracion;
+import com.boutique.entity.Cliente;
+import com.boutique.entity.PlanCredito;
+import com.boutique.entity.Producto;
+import com.boutique.entity.Sucursal;
+import com.boutique.entity.enums.Frecuencia;
+import com.boutique.entity.enums.MetodoPago;
+import com.boutique.service.VentaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pagos concurrentes de cuotas por HTTP: una cuota se cobra una sola vez y los
+ * pagos de distintas cuotas del mismo crédito no pierden actualizaciones.
+ * @author GERSON
+ */
+
+@PruebaIntegracion(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PagoControllerTest {
+    private static final int HILOS = 8;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private VentaService ventaService;
+    @Autowired
+    private DatosPrueba datos;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Sucursal sucursal;
+    private Cliente cliente;
+    private PlanCredito plan;
+    private Long idVenta;
+    private List<Long> cuotas;
+
+    @BeforeEach
+    void crearCredito() {
+        Producto producto = this.transactionTemplate.execute(estado -> {
+            this.sucursal = this.datos.sucursal();
+            this.cliente = this.datos.cliente();
+            // Sin interés: tres cuotas de 100.00 y saldos exactos
+            this.plan = this.datos.planCredito(Frecuencia.MENSUAL, 3, "0.00");
+            return this.datos.producto(this.sucursal, "300.00", 10);
+        });
+        this.idVenta = this.ventaService.crearVenta(DatosPrueba.venta(
+                this.sucursal, this.cliente, this.plan, DatosPrueba.lineas(producto, 1)
+        )).getId();
+        this.cuotas = this.jdbcTemplate.queryForList("""
+                select cu.id from cuota cu
+                join credito cr on cr.id = cu.credito_id
+                where cr.venta_id = ?
+                order by cu.numero
+                """, Long.class, this.idVenta);
+    }
+
+    @AfterEach
+    void eliminarDatos() throws InterruptedException {
+        this.datos.eliminar(this.sucursal.getId(), this.cliente.getId(), this.plan.getId());
+    }
+
+    @Test
+    void laMismaCuotaSoloSeCobraUnaVez() throws Exception {
+        List<HttpStatusCode> estados = this.pagarEnParalelo(List.of(
+                this.cuotas.get(0), this.cuotas.get(0), this.cuotas.get(0), this.cuotas.get(0),
+                this.cuotas.get(0), this.cuotas.get(0), this.cuotas.get(0), this.cuotas.get(0)
+        ));
+
+        assertThat(estados).filteredOn(HttpStatus.CREATED::equals).hasSize(1);
+        assertThat(estados).filteredOn(HttpStatus.CONFLICT::equals).hasSize(HILOS - 1);
+        assertThat(this.credito("cuotas_pagadas", Integer.class)).isEqualTo(1);
+        assertThat(this.credito("saldo_pendiente", BigDecimal.class)).isEqualByComparingTo("200.00");
+        assertThat(this.estadoVenta()).isEqualTo("PAGANDO_CREDITO");
+    }
+
+    @Test
+    void cuotasDistintasDelMismoCreditoNoSePierden() throws Exception {
+        assertThat(this.pagarEnParalelo(List.of(this.cuotas.get(0))))
+                .containsExactly(HttpStatus.CREATED);
+
+        List<HttpStatusCode> estados = this.pagarEnParalelo(List.of(this.cuotas.get(1), this.cuotas.get(2)));
+
+        assertThat(estados).containsOnly(HttpStatus.CREATED);
+        assertThat(this.credito("cuotas_pagadas", Integer.class)).isEqualTo(3);
+        assertThat(this.credito("saldo_pendiente", BigDecimal.class)).isEqualByComparingTo("0.00");
+        assertThat(this.estadoVenta()).isEqualTo("COMPLETADA");
+    }
+
+    /**
+     * Envía un pago por cuota, todos a la vez desde hilos distintos.
+     */
+    private List<HttpStatusCode> pagarEnParalelo(List<Long> idsCuota) throws Exception {
+        ExecutorService hilos = Executors.newFixedThreadPool(idsCuota.size());
+        CountDownLatch salida = new CountDownLatch(1);
+        try {
+            List<Future<HttpStatusCode>> respuestas = new ArrayList<>();
+            for (Long idCuota : idsCuota)
+                respuestas.add(hilos.submit(() -> {
+                    salida.await();
+                    return this.restTemplate.postForEntity(
+                            "/api/pagos/pago-cuota", pago(idCuota), String.class
+                    ).getStatusCode();
+                }));
+            salida.countDown();
+
+            List<HttpStatusCode> estados = new ArrayList<>();
+            for (Future<HttpStatusCode> respuesta : respuestas)
+                estados.add(respuesta.get());
+            return estados;
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    private <T> T credito(String columna, Class<T> tipo) {
+        return this.jdbcTemplate.queryForObject(
+                "select " + columna + " from credito where venta_id = ?", tipo, this.idVenta
+        );
+    }
+
+    private String estadoVenta() {
+        return this.jdbcTemplate.queryForObject(
+                "select estado from venta where id = ?", String.class, this.idVenta
+        );
+    }
+
+    /**
+     * Cuerpo de la solicitud como mapa: idCuota es de sólo escritura en
+     * PagoSimpleDto y no se serializaría.
+     */
+    private static Map<String, Object> pago(Long idCuota) {
+        return Map.of(
+                "fecha", LocalDate.now().toString(),
+                "hora", LocalTime.now().withNano(0).toString(),
+                "metodoPago", MetodoPago.EFECTIVO,
+                "monto", new BigDecimal("100.00"),
+                "idCuota", idCuota
+        );
+    }
+}
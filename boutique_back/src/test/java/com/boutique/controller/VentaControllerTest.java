@@ -0,0 +1,144 @@
+package com.boutique.controller;
+
+import com.boutique.DatosPrueba;
+import com.boutique.PruebaIntegracion;
+import com.boutique.entity.Cliente;
+import com.boutique.entity.Producto;
+import com.boutique.entity.Sucursal;
+import com.boutique.entity.dto.VentaDetalleDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ventas concurrentes por HTTP sobre el mismo inventario: se venden exactamente
+ * las unidades en stock, el resto recibe 409 y la cantidad nunca queda negativa.
+ * @author GERSON
+ */
+
+@PruebaIntegracion(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class VentaControllerTest {
+    private static final int STOCK = 5;
+    private static final int SOLICITUDES = 30;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private DatosPrueba datos;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Sucursal sucursal;
+    private Cliente cliente;
+
+    @BeforeEach
+    void crearSucursal() {
+        this.transactionTemplate.executeWithoutResult(estado -> {
+            this.sucursal = this.datos.sucursal();
+            this.cliente = this.datos.cliente();
+        });
+    }
+
+    @AfterEach
+    void eliminarDatos() throws InterruptedException {
+        this.datos.eliminar(this.sucursal.getId(), this.cliente.getId(), null);
+    }
+
+    @Test
+    void noSeVendeMasQueElStock() throws Exception {
+        Producto producto = this.transactionTemplate.execute(estado ->
+                this.datos.producto(this.sucursal, "50.00", STOCK)
+        );
+        List<VentaDetalleDto> ventas = new ArrayList<>();
+        for (int i = 0; i < SOLICITUDES; i++)
+            ventas.add(DatosPrueba.venta(this.sucursal, this.cliente, null, DatosPrueba.lineas(producto, 1)));
+
+        List<HttpStatusCode> estados = this.venderEnParalelo(ventas);
+
+        assertThat(estados).filteredOn(HttpStatus.CREATED::equals).hasSize(STOCK);
+        assertThat(estados).filteredOn(HttpStatus.CONFLICT::equals).hasSize(SOLICITUDES - STOCK);
+        assertThat(this.stock(producto)).isZero();
+        assertThat(this.ventasDeLaSucursal()).isEqualTo(STOCK);
+    }
+
+    @Test
+    void lineasEnOrdenOpuestoNoSeBloquean() throws Exception {
+        List<Producto> productos = this.transactionTemplate.execute(estado -> List.of(
+                this.datos.producto(this.sucursal, "50.00", STOCK),
+                this.datos.producto(this.sucursal, "80.00", STOCK)
+        ));
+        Producto a = productos.get(0);
+        Producto b = productos.get(1);
+        // Mitad de las ventas con las líneas A, B y mitad con B, A
+        List<VentaDetalleDto> ventas = new ArrayList<>();
+        for (int i = 0; i < SOLICITUDES; i++)
+            ventas.add(DatosPrueba.venta(this.sucursal, this.cliente, null, i % 2 == 0
+                    ? DatosPrueba.lineas(a, 1, b, 1)
+                    : DatosPrueba.lineas(b, 1, a, 1)));
+
+        List<HttpStatusCode> estados = this.venderEnParalelo(ventas);
+
+        // Un interbloqueo abortaría una transacción y llegaría como 500
+        assertThat(estados).containsOnly(HttpStatus.CREATED, HttpStatus.CONFLICT);
+        assertThat(estados).filteredOn(HttpStatus.CREATED::equals).hasSize(STOCK);
+        assertThat(this.stock(a)).isZero();
+        assertThat(this.stock(b)).isZero();
+        assertThat(this.ventasDeLaSucursal()).isEqualTo(STOCK);
+    }
+
+    /**
+     * Envía todas las ventas a la vez, cada una desde su propio hilo.
+     */
+    private List<HttpStatusCode> venderEnParalelo(List<VentaDetalleDto> ventas) throws Exception {
+        ExecutorService hilos = Executors.newFixedThreadPool(ventas.size());
+        CountDownLatch salida = new CountDownLatch(1);
+        try {
+            List<Future<HttpStatusCode>> respuestas = new ArrayList<>();
+            for (VentaDetalleDto venta : ventas)
+                respuestas.add(hilos.submit(() -> {
+                    salida.await();
+                    return this.restTemplate.postForEntity("/api/ventas", venta, String.class)
+                            .getStatusCode();
+                }));
+            salida.countDown();
+
+            List<HttpStatusCode> estados = new ArrayList<>();
+            for (Future<HttpStatusCode> respuesta : respuestas)
+                estados.add(respuesta.get());
+            return estados;
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    private Integer stock(Producto producto) {
+        return this.jdbcTemplate.queryForObject(
+                "select cantidad from inventario where sucursal_id = ? and producto_id = ?",
+                Integer.class, this.sucursal.getId(), producto.getId()
+        );
+    }
+
+    private Integer ventasDeLaSucursal() {
+        return this.jdbcTemplate.queryForObject(
+                "select count(*) from venta where sucursal_id = ?", Integer.class, this.sucursal.getId()
+        );
+    }
+}
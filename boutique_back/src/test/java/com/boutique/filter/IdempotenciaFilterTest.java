@@ -0,0 +1,206 @@
+package com.boutique.filter;
+
+import com.boutique.cache.IdempotenciaCache;
+import com.boutique.security.IdentidadInterna;
+import com.boutique.security.JwtUtils;
+import com.boutique.service.RegistroIdempotenciaService;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Las claves de idempotencia valen por usuario y por cuerpo: una repetición
+ * exacta recibe la respuesta original, la misma clave con otro cuerpo recibe
+ * 422 y la clave de otro usuario se ejecuta como una petición nueva. La
+ * respuesta repetida conserva las cabeceras de la original.
+ * @author GERSON
+ */
+
+class IdempotenciaFilterTest {
+    private static final String RUTA = "/api/pagos/pago-venta";
+    private static final String CUERPO = "{\"idVenta\":1,\"monto\":100.00}";
+
+    private final IdentidadInterna identidadInterna = mock(IdentidadInterna.class);
+    private final JwtUtils jwtUtils = mock(JwtUtils.class);
+    // Cuerpos que llegaron al controlador, en orden
+    private final List<String> ejecutadas = new ArrayList<>();
+
+    private IdempotenciaFilter filtro;
+
+    @BeforeEach
+    void crearFiltro() {
+        this.filtro = new IdempotenciaFilter(
+                new IdempotenciaCache(new SimpleMeterRegistry(), Duration.ofHours(1), 100),
+                mock(RegistroIdempotenciaService.class),
+                this.identidadInterna,
+                this.jwtUtils,
+                Set.of(RUTA)
+        );
+        when(this.jwtUtils.parseClaims("token-ana")).thenReturn(Jwts.claims().subject("ana").build());
+        when(this.jwtUtils.parseClaims("token-luis")).thenReturn(Jwts.claims().subject("luis").build());
+        when(this.jwtUtils.parseClaims("token-invalido"))
+                .thenThrow(new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+    }
+
+    @Test
+    void repeticionExactaDevuelveLaRespuestaOriginal() throws Exception {
+        MockHttpServletResponse primera = this.enviar("token-ana", "clave-1", CUERPO);
+        MockHttpServletResponse segunda = this.enviar("token-ana", "clave-1", CUERPO);
+
+        assertThat(this.ejecutadas).containsExactly(CUERPO);
+        assertThat(primera.getStatus()).isEqualTo(201);
+        assertThat(segunda.getStatus()).isEqualTo(201);
+        assertThat(segunda.getHeader("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(segunda.getContentAsString()).isEqualTo(primera.getContentAsString());
+    }
+
+    @Test
+    void repeticionDevuelveLasCabecerasOriginales() throws Exception {
+        MockHttpServletResponse primera = this.enviar("token-ana", "clave-1", CUERPO);
+        MockHttpServletResponse segunda = this.enviar("token-ana", "clave-1", CUERPO);
+
+        assertThat(primera.getHeader(HttpHeaders.LOCATION)).isEqualTo(RUTA + "/1");
+        assertThat(segunda.getHeader(HttpHeaders.LOCATION)).isEqualTo(RUTA + "/1");
+        assertThat(segunda.getHeaders("X-Prueba")).containsExactly("a", "b");
+        assertThat(segunda.getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    @Test
+    void elCuerpoSePuedeLeerConReadListener() throws Exception {
+        MockHttpServletRequest request = this.solicitud("token-ana", "clave-1", CUERPO);
+        ByteArrayOutputStream leido = new ByteArrayOutputStream();
+        List<String> avisos = new ArrayList<>();
+
+        this.filtro.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                ServletInputStream entrada = req.getInputStream();
+                entrada.setReadListener(new ReadListener() {
+                    @Override
+                    public void onDataAvailable() throws IOException {
+                        avisos.add("datos");
+                        byte[] bloque = new byte[8];
+                        int leidos;
+                        while (entrada.isReady() && (leidos = entrada.read(bloque)) != -1)
+                            leido.write(bloque, 0, leidos);
+                    }
+
+                    @Override
+                    public void onAllDataRead() {
+                        avisos.add("fin");
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        avisos.add("error");
+                    }
+                });
+                resp.setStatus(201);
+            }
+        }));
+
+        assertThat(avisos).containsExactly("datos", "fin");
+        assertThat(leido.toString(StandardCharsets.UTF_8)).isEqualTo(CUERPO);
+    }
+
+    @Test
+    void mismaClaveConOtroCuerpoDevuelve422() throws Exception {
+        this.enviar("token-ana", "clave-1", CUERPO);
+
+        MockHttpServletResponse respuesta = this.enviar("token-ana", "clave-1", "{\"idVenta\":2,\"monto\":100.00}");
+
+        assertThat(respuesta.getStatus()).isEqualTo(422);
+        assertThat(respuesta.getHeader("Idempotent-Replayed")).isNull();
+        assertThat(this.ejecutadas).hasSize(1);
+    }
+
+    @Test
+    void laClaveDeOtroUsuarioNoDevuelveSuRespuesta() throws Exception {
+        this.enviar("token-ana", "clave-1", CUERPO);
+
+        MockHttpServletResponse respuesta = this.enviar("token-luis", "clave-1", CUERPO);
+
+        assertThat(respuesta.getHeader("Idempotent-Replayed")).isNull();
+        assertThat(this.ejecutadas).hasSize(2);
+    }
+
+    @Test
+    void identidadDelGatewayTienePrioridadSobreElToken() throws Exception {
+        this.enviar("token-ana", "clave-1", CUERPO);
+        when(this.identidadInterna.verificar(any(HttpServletRequest.class)))
+                .thenReturn(new User("ana", "", List.of()));
+
+        MockHttpServletResponse respuesta = this.enviar("token-luis", "clave-1", CUERPO);
+
+        assertThat(respuesta.getHeader("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(this.ejecutadas).hasSize(1);
+    }
+
+    @Test
+    void sinCredencialesValidasLaClaveEsAnonima() throws Exception {
+        this.enviar("token-ana", "clave-1", CUERPO);
+
+        MockHttpServletResponse invalido = this.enviar("token-invalido", "clave-1", CUERPO);
+        MockHttpServletResponse sinToken = this.enviar(null, "clave-1", CUERPO);
+
+        assertThat(invalido.getHeader("Idempotent-Replayed")).isNull();
+        assertThat(sinToken.getHeader("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(this.ejecutadas).hasSize(2);
+    }
+
+    private MockHttpServletResponse enviar(String token, String clave, String cuerpo) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        this.filtro.doFilter(this.solicitud(token, clave, cuerpo), response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                // El controlador tiene que poder leer el cuerpo que el filtro ya consumió
+                String leido = new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+                ejecutadas.add(leido);
+                resp.setStatus(201);
+                resp.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                resp.setHeader(HttpHeaders.LOCATION, RUTA + "/" + ejecutadas.size());
+                resp.addHeader("X-Prueba", "a");
+                resp.addHeader("X-Prueba", "b");
+                resp.getWriter().write("{\"id\":" + ejecutadas.size() + "}");
+            }
+        }));
+        return response;
+    }
+
+    private MockHttpServletRequest solicitud(String token, String clave, String cuerpo) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", RUTA);
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(cuerpo.getBytes(StandardCharsets.UTF_8));
+        request.addHeader(IdempotenciaFilter.CABECERA, clave);
+        if (token != null)
+            request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,141 @@
+package com.boutique.repository;
+
+import com.boutique.DatosPrueba;
+import com.boutique.PruebaIntegracion;
+import com.boutique.entity.Cliente;
+import com.boutique.entity.PlanCredito;
+import com.boutique.entity.Producto;
+import com.boutique.entity.Sucursal;
+import com.boutique.entity.dto.VentaSimpleDto;
+import com.boutique.entity.enums.EstadoVenta;
+import com.boutique.entity.enums.Frecuencia;
+import com.boutique.service.VentaService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Las consultas de listado de ventas deben resolver una página de 100, con el
+ * nombre de cada cliente, en una consulta de datos más una de conteo, sin
+ * importar cuántas ventas o clientes distintos traiga la página.
+ * @author GERSON
+ */
+
+@PruebaIntegracion
+@Transactional
+class VentaRepositoryTest {
+    private static final int PAGINA = 100;
+    // Más clientes distintos por página que sentencias toleradas: una carga
+    // perezosa por cliente no pasaría la prueba
+    private static final int CLIENTES = 60;
+
+    @Autowired
+    private VentaRepository repository;
+    @Autowired
+    private VentaService ventaService;
+    @Autowired
+    private DatosPrueba datos;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Sucursal sucursal;
+    private Cliente clienteFrecuente;
+    // Nombre completo del cliente de cada venta creada
+    private final Map<Long, String> clientePorVenta = new HashMap<>();
+
+    @BeforeEach
+    void crearVentas() {
+        this.sucursal = this.datos.sucursal();
+        Sucursal otraSucursal = this.datos.sucursal();
+        Producto producto = this.datos.producto(this.sucursal, "50.00", 1000);
+        Producto otroProducto = this.datos.producto(otraSucursal, "50.00", 1000);
+        PlanCredito plan = this.datos.planCredito(Frecuencia.MENSUAL, 3, "12.00");
+
+        // Dos ventas al contado y dos a crédito por cliente en la sucursal
+        for (int i = 1; i <= CLIENTES; i++) {
+            Cliente cliente = this.datos.cliente("Cliente", String.format("Número %02d", i));
+            for (int j = 0; j < 2; j++) {
+                this.crearVenta(this.sucursal, cliente, null, producto);
+                this.crearVenta(this.sucursal, cliente, plan, producto);
+            }
+        }
+        // Más de una página de ventas de un mismo cliente, en otra sucursal
+        this.clienteFrecuente = this.datos.cliente("Cliente", "Frecuente");
+        for (int i = 0; i <= PAGINA; i++)
+            this.crearVenta(otraSucursal, this.clienteFrecuente, null, otroProducto);
+
+        this.entityManager.flush();
+        this.entityManager.clear();
+    }
+
+    @Test
+    void listarPorClienteUsaDosSentencias() {
+        Statistics estadisticas = this.datos.estadisticas();
+
+        Page<VentaSimpleDto> pagina = this.repository.findByClienteId(
+                this.clienteFrecuente.getId(), PageRequest.of(0, PAGINA)
+        );
+
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(pagina.getTotalElements()).isEqualTo(PAGINA + 1);
+        assertThat(pagina.getContent()).hasSize(PAGINA);
+        this.assertClienteDeCadaVenta(pagina);
+    }
+
+    @Test
+    void listarPorEstadoYSucursalUsaDosSentencias() {
+        Statistics estadisticas = this.datos.estadisticas();
+
+        Page<VentaSimpleDto> pagina = this.repository.findVentas(
+                EstadoVenta.PENDIENTE, this.sucursal.getId(), PageRequest.of(0, PAGINA)
+        );
+
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(pagina.getTotalElements()).isEqualTo(2L * CLIENTES);
+        assertThat(pagina.getContent())
+                .hasSize(PAGINA)
+                .allSatisfy(venta -> assertThat(venta.getEstado()).isEqualTo(EstadoVenta.PENDIENTE));
+        // Cada cliente tiene dos ventas pendientes: la página trae al menos 50 distintos
+        assertThat(pagina.getContent().stream().map(VentaSimpleDto::getClienteNombre).distinct().count())
+                .isGreaterThanOrEqualTo(PAGINA / 2);
+        this.assertClienteDeCadaVenta(pagina);
+    }
+
+    @Test
+    void listarDesdeElServicioUsaDosSentencias() {
+        Statistics estadisticas = this.datos.estadisticas();
+
+        Page<VentaSimpleDto> pagina = this.ventaService.listarVentasPagandoCredito(
+                this.sucursal.getId(), PageRequest.of(0, PAGINA)
+        );
+
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(pagina.getTotalElements()).isEqualTo(2L * CLIENTES);
+        assertThat(pagina.getContent())
+                .hasSize(PAGINA)
+                .allSatisfy(venta -> assertThat(venta.getEstado()).isEqualTo(EstadoVenta.PAGANDO_CREDITO));
+        this.assertClienteDeCadaVenta(pagina);
+    }
+
+    private void crearVenta(Sucursal sucursal, Cliente cliente, PlanCredito plan, Producto producto) {
+        Long idVenta = this.ventaService.crearVenta(
+                DatosPrueba.venta(sucursal, cliente, plan, DatosPrueba.lineas(producto, 1))
+        ).getId();
+        this.clientePorVenta.put(idVenta, cliente.getNombre() + " " + cliente.getApellido());
+    }
+
+    private void assertClienteDeCadaVenta(Page<VentaSimpleDto> pagina) {
+        assertThat(pagina.getContent()).allSatisfy(venta ->
+                assertThat(venta.getClienteNombre()).isEqualTo(this.clientePorVenta.get(venta.getId())));
+    }
+}
@@ -0,0 +1,153 @@
+package com.boutique.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verificación de la identidad firmada por el Gateway: se acepta sólo con la
+ * firma de esos mismos usuario, rol, instante, método y ruta, y dentro de la vigencia.
+ * @author GERSON
+ */
+
+class IdentidadInternaTest {
+    private static final String SECRETO = "secreto-de-prueba";
+    private static final Duration VIGENCIA = Duration.ofSeconds(30);
+
+    private IdentidadInterna identidadInterna;
+
+    @BeforeEach
+    void crearIdentidad() {
+        this.identidadInterna = new IdentidadInterna();
+        ReflectionTestUtils.setField(this.identidadInterna, "secreto", SECRETO);
+        ReflectionTestUtils.setField(this.identidadInterna, "vigencia", VIGENCIA);
+        this.identidadInterna.init();
+    }
+
+    @Test
+    void aceptaUnaFirmaValida() {
+        UserDetails usuario = this.identidadInterna.verificar(firmada("POST", "/api/ventas", ahora()));
+
+        assertThat(usuario).isNotNull();
+        assertThat(usuario.getUsername()).isEqualTo("ana");
+        assertThat(usuario.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_VENDEDOR");
+    }
+
+    @Test
+    void rechazaOtroRol() {
+        MockHttpServletRequest request = firmada("POST", "/api/ventas", ahora());
+        request.removeHeader(IdentidadInterna.HEADER_ROL);
+        request.addHeader(IdentidadInterna.HEADER_ROL, "ROLE_ADMIN");
+
+        assertThat(this.identidadInterna.verificar(request)).isNull();
+    }
+
+    @Test
+    void rechazaOtroUsuario() {
+        MockHttpServletRequest request = firmada("POST", "/api/ventas", ahora());
+        request.removeHeader(IdentidadInterna.HEADER_USUARIO);
+        request.addHeader(IdentidadInterna.HEADER_USUARIO, "admin");
+
+        assertThat(this.identidadInterna.verificar(request)).isNull();
+    }
+
+    @Test
+    void rechazaOtroMetodo() {
+        MockHttpServletRequest request = firmada("GET", "/api/ventas", ahora());
+        request.setMethod("DELETE");
+
+        assertThat(this.identidadInterna.verificar(request)).isNull();
+    }
+
+    @Test
+    void rechazaOtraRuta() {
+        MockHttpServletRequest request = firmada("DELETE", "/api/ventas/1", ahora());
+        request.setRequestURI("/api/ventas/2");
+
+        assertThat(this.identidadInterna.verificar(request)).isNull();
+    }
+
+    @Test
+    void rechazaUnaFirmaVencida() {
+        long fecha = ahora() - VIGENCIA.toMillis() - 1_000;
+
+        assertThat(this.identidadInterna.verificar(firmada("POST", "/api/ventas", fecha))).isNull();
+    }
+
+    @Test
+    void rechazaUnaFechaFutura() {
+        long fecha = ahora() + VIGENCIA.toMillis() + 1_000;
+
+        assertThat(this.identidadInterna.verificar(firmada("POST", "/api/ventas", fecha))).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"no es base64!", "%%%", ""})
+    void rechazaUnaFirmaMalFormada(String firma) {
+        MockHttpServletRequest request = firmada("POST", "/api/ventas", ahora());
+        request.removeHeader(IdentidadInterna.HEADER_FIRMA);
+        request.addHeader(IdentidadInterna.HEADER_FIRMA, firma);
+
+        assertThat(this.identidadInterna.verificar(request)).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ayer", "1.5e12", ""})
+    void rechazaUnaFechaMalFormada(String fecha) {
+        MockHttpServletRequest request = firmada("POST", "/api/ventas", ahora());
+        request.removeHeader(IdentidadInterna.HEADER_FECHA);
+        request.addHeader(IdentidadInterna.HEADER_FECHA, fecha);
+
+        assertThat(this.identidadInterna.verificar(request)).isNull();
+    }
+
+    @Test
+    void rechazaSiFaltaUnHeader() {
+        MockHttpServletRequest request = firmada("POST", "/api/ventas", ahora());
+        request.removeHeader(IdentidadInterna.HEADER_FIRMA);
+
+        assertThat(this.identidadInterna.verificar(request)).isNull();
+    }
+
+    /**
+     * Petición con la identidad firmada como lo hace el Gateway.
+     */
+    private static MockHttpServletRequest firmada(String metodo, String ruta, long fecha) {
+        MockHttpServletRequest request = new MockHttpServletRequest(metodo, ruta);
+        request.addHeader(IdentidadInterna.HEADER_USUARIO, "ana");
+        request.addHeader(IdentidadInterna.HEADER_ROL, "ROLE_VENDEDOR");
+        request.addHeader(IdentidadInterna.HEADER_FECHA, Long.toString(fecha));
+        request.addHeader(IdentidadInterna.HEADER_FIRMA,
+                firma("ana\nROLE_VENDEDOR\n" + fecha + '\n' + metodo + '\n' + ruta));
+        return request;
+    }
+
+    private static String firma(String contenido) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(SECRETO.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(mac.doFinal(contenido.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long ahora() {
+        return System.currentTimeMillis();
+    }
+}
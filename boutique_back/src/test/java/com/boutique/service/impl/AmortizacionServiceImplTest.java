@@ -0,0 +1,129 @@
+package com.boutique.service.impl;
+
+import com.boutique.entity.dto.CotizacionCreditoDto;
+import com.boutique.entity.dto.CotizacionCreditoRequest;
+import com.boutique.entity.dto.PlanCreditoDto;
+import com.boutique.entity.enums.Frecuencia;
+import com.boutique.service.PlanCreditoService;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compara el cálculo en centavos y diezmilésimos con la fórmula en BigDecimal
+ * que usaba CreditoServiceImpl antes del motor de amortización.
+ * @author GERSON
+ */
+
+@ExtendWith(MockitoExtension.class)
+class AmortizacionServiceImplTest {
+    private static final String[] MONTOS = {
+            "0.01", "0.99", "1.01", "7.77", "100.00", "333.33", "1234.57", "9999.99", "99999999.99"
+    };
+    private static final String[] INTERESES = {"0.00", "0.01", "12.00", "18.50", "33.33", "99.99"};
+    private static final short[] PLAZOS = {1, 3, 7, 12, 24, 52};
+
+    @Mock
+    private PlanCreditoService planCreditoService;
+    @InjectMocks
+    private AmortizacionServiceImpl servicio;
+
+    static Stream<Arguments> casos() {
+        return Arrays.stream(Frecuencia.values()).flatMap(frecuencia ->
+                Arrays.stream(INTERESES).flatMap(interes ->
+                        Arrays.stream(MONTOS).flatMap(monto -> {
+                            Stream.Builder<Arguments> casos = Stream.builder();
+                            for (short plazo : PLAZOS)
+                                casos.add(Arguments.of(
+                                        new BigDecimal(monto), new BigDecimal(interes), frecuencia, plazo
+                                ));
+                            return casos.build();
+                        })));
+    }
+
+    @ParameterizedTest(name = "{0} al {1}% {2} en {3}")
+    @MethodSource("casos")
+    void montoTotalYCuotaCoincidenConBigDecimal(
+            BigDecimal monto, BigDecimal interesAnual, Frecuencia frecuencia, short plazo
+    ) {
+        BigDecimal totalEsperado = montoTotalAnterior(monto, interesAnual, frecuencia, plazo);
+        BigDecimal cuotaEsperada = totalEsperado.divide(BigDecimal.valueOf(plazo), 2, RoundingMode.HALF_UP);
+
+        BigDecimal total = this.servicio.calcularMontoTotal(monto, interesAnual, frecuencia, plazo);
+        BigDecimal cuota = this.servicio.calcularMontoCuota(total, plazo);
+
+        assertThat(total).isEqualTo(totalEsperado);
+        assertThat(cuota).isEqualTo(cuotaEsperada);
+        // Lo que queda para la última cuota después de pagar las anteriores
+        assertThat(restoUltimaCuota(total, cuota, plazo))
+                .isEqualTo(restoUltimaCuota(totalEsperado, cuotaEsperada, plazo));
+    }
+
+    @ParameterizedTest(name = "{0} al {1}% {2} en {3}")
+    @MethodSource("casos")
+    void cotizacionCoincideConBigDecimal(
+            BigDecimal monto, BigDecimal interesAnual, Frecuencia frecuencia, short plazo
+    ) {
+        PlanCreditoDto plan = PlanCreditoDto.builder()
+                .id((short) 1)
+                .nombre("Plan")
+                .plazo(plazo)
+                .frecuencia(frecuencia)
+                .interesAnual(interesAnual)
+                .activo(true)
+                .build();
+        when(this.planCreditoService.obtenerPlanCreditoPorId((short) 1)).thenReturn(plan);
+        CotizacionCreditoRequest request = new CotizacionCreditoRequest(
+                List.of(monto), List.of((short) 1), LocalDate.of(2025, 1, 31), true
+        );
+
+        CotizacionCreditoDto cotizacion = this.servicio.cotizar(request).get(0);
+
+        BigDecimal totalEsperado = montoTotalAnterior(monto, interesAnual, frecuencia, plazo);
+        BigDecimal cuotaEsperada = totalEsperado.divide(BigDecimal.valueOf(plazo), 2, RoundingMode.HALF_UP);
+        assertThat(cotizacion.getMontoTotal()).isEqualTo(totalEsperado);
+        assertThat(cotizacion.getMontoCuota()).isEqualTo(cuotaEsperada);
+        assertThat(cotizacion.getInteres()).isEqualTo(totalEsperado.subtract(monto));
+        assertThat(cotizacion.getTasaPorPeriodo()).isEqualTo(tasaPorPeriodoAnterior(interesAnual, frecuencia));
+        assertThat(restoUltimaCuota(cotizacion.getMontoTotal(), cotizacion.getMontoCuota(), plazo))
+                .isEqualTo(restoUltimaCuota(totalEsperado, cuotaEsperada, plazo));
+        assertThat(cotizacion.getFechasVencimiento()).hasSize(plazo);
+    }
+
+    private static BigDecimal restoUltimaCuota(BigDecimal total, BigDecimal cuota, short plazo) {
+        return total.subtract(cuota.multiply(BigDecimal.valueOf(plazo - 1)));
+    }
+
+    // Fórmula anterior de CreditoServiceImpl.calcularMontoTotal
+    private static BigDecimal montoTotalAnterior(
+            BigDecimal totalVenta, BigDecimal interesAnual, Frecuencia frecuencia, short plazo
+    ) {
+        BigDecimal interes = totalVenta.multiply(tasaPorPeriodoAnterior(interesAnual, frecuencia))
+                .multiply(BigDecimal.valueOf(plazo));
+        return totalVenta.add(interes).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal tasaPorPeriodoAnterior(BigDecimal interesAnual, Frecuencia frecuencia) {
+        short periodosPorAno = switch (frecuencia) {
+            case SEMANAL -> 52;
+            case QUINCENAL -> 24;
+            case MENSUAL -> 12;
+        };
+        BigDecimal tasaInteres = interesAnual.divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP);
+        return tasaInteres.divide(BigDecimal.valueOf(periodosPorAno), 4, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,140 @@
+package com.boutique.service.impl;
+
+import com.boutique.DatosPrueba;
+import com.boutique.PruebaIntegracion;
+import com.boutique.entity.Cliente;
+import com.boutique.entity.PlanCredito;
+import com.boutique.entity.Producto;
+import com.boutique.entity.Sucursal;
+import com.boutique.entity.dto.AntiguedadCarteraDto;
+import com.boutique.entity.dto.CuotaVencidaDto;
+import com.boutique.entity.dto.PagoSimpleDto;
+import com.boutique.entity.dto.VentaDetalleDto;
+import com.boutique.entity.enums.Frecuencia;
+import com.boutique.entity.enums.MetodoPago;
+import com.boutique.service.CobranzaService;
+import com.boutique.service.PagoService;
+import com.boutique.service.VentaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * La cartera vencida se pagina desde memoria y descuenta las cuotas pagadas y
+ * las ventas canceladas apenas se confirma cada transacción.
+ * @author GERSON
+ */
+
+@PruebaIntegracion
+class CobranzaServiceImplTest {
+    @Autowired
+    private CobranzaService cobranzaService;
+    @Autowired
+    private VentaService ventaService;
+    @Autowired
+    private PagoService pagoService;
+    @Autowired
+    private DatosPrueba datos;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Sucursal sucursal;
+    private Cliente cliente;
+    private PlanCredito plan;
+    private Long ventaPagada;
+    private Long ventaCancelada;
+
+    @BeforeEach
+    void crearCreditosVencidos() {
+        Producto producto = this.transactionTemplate.execute(estado -> {
+            this.sucursal = this.datos.sucursal();
+            this.cliente = this.datos.cliente();
+            this.plan = this.datos.planCredito(Frecuencia.MENSUAL, 3, "0.00");
+            return this.datos.producto(this.sucursal, "300.00", 10);
+        });
+        // Vendidas hace cuatro meses: las tres cuotas mensuales ya vencieron
+        this.ventaPagada = this.crearVentaVencida(producto);
+        this.ventaCancelada = this.crearVentaVencida(producto);
+        this.cobranzaService.recalcularCartera();
+    }
+
+    @AfterEach
+    void eliminarDatos() throws InterruptedException {
+        this.datos.eliminar(this.sucursal.getId(), this.cliente.getId(), this.plan.getId());
+    }
+
+    @Test
+    void paginaLasCuotasDeLaSucursal() {
+        Page<CuotaVencidaDto> primera = this.listar(0, 4);
+        Page<CuotaVencidaDto> segunda = this.listar(1, 4);
+
+        assertThat(primera.getTotalElements()).isEqualTo(6);
+        assertThat(primera.getContent()).hasSize(4);
+        assertThat(segunda.getContent()).hasSize(2);
+        assertThat(primera.getContent().get(0).getFechaVencimiento())
+                .isBeforeOrEqualTo(segunda.getContent().get(1).getFechaVencimiento());
+        assertThat(primera.getContent().get(0).getClienteNombre()).isEqualTo("Cliente Prueba");
+    }
+
+    @Test
+    void pagarUnaCuotaLaQuitaDeLaCartera() {
+        CuotaVencidaDto cuota = this.listar(0, 10).getContent().stream()
+                .filter(c -> c.getIdVenta().equals(this.ventaPagada))
+                .findFirst()
+                .orElseThrow();
+
+        this.pagoService.crearPagoCuota(PagoSimpleDto.builder()
+                .fecha(LocalDate.now())
+                .hora(LocalTime.now())
+                .metodoPago(MetodoPago.EFECTIVO)
+                .monto(cuota.getMonto())
+                .idCuota(cuota.getIdCuota())
+                .build());
+
+        assertThat(this.listar(0, 10).getContent())
+                .extracting(CuotaVencidaDto::getIdCuota)
+                .hasSize(5)
+                .doesNotContain(cuota.getIdCuota());
+        AntiguedadCarteraDto antiguedad = this.cobranzaService
+                .obtenerAntiguedadCartera(this.sucursal.getId()).get(0);
+        assertThat(antiguedad.getTotalCuotas()).isEqualTo(5);
+        assertThat(antiguedad.getTotalMonto()).isEqualByComparingTo("500.00");
+    }
+
+    @Test
+    void cancelarUnaVentaQuitaSusCuotas() {
+        this.ventaService.canelarVenta(this.ventaCancelada);
+
+        assertThat(this.listar(0, 10).getContent())
+                .extracting(CuotaVencidaDto::getIdVenta)
+                .containsOnly(this.ventaPagada)
+                .hasSize(3);
+
+        // El recálculo tampoco vuelve a traer las cuotas de la venta cancelada
+        this.cobranzaService.recalcularCartera();
+        assertThat(this.listar(0, 10).getTotalElements()).isEqualTo(3);
+    }
+
+    private Long crearVentaVencida(Producto producto) {
+        VentaDetalleDto venta = DatosPrueba.venta(
+                this.sucursal, this.cliente, this.plan, DatosPrueba.lineas(producto, 1)
+        );
+        venta.setFecha(LocalDate.now().minusMonths(4));
+        return this.ventaService.crearVenta(venta).getId();
+    }
+
+    private Page<CuotaVencidaDto> listar(int pagina, int tamano) {
+        return this.cobranzaService.listarCuotasVencidas(this.sucursal.getId(), PageRequest.of(pagina, tamano));
+    }
+}
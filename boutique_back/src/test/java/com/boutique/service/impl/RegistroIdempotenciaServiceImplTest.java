@@ -0,0 +1,90 @@
+package com.boutique.service.impl;
+
+import com.boutique.PruebaIntegracion;
+import com.boutique.cache.IdempotenciaCache;
+import com.boutique.cache.IdempotenciaCache.ClaveIdempotencia;
+import com.boutique.cache.IdempotenciaCache.RespuestaIdempotente;
+import com.boutique.service.RegistroIdempotenciaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Una respuesta registrada vuelve a la caché al arrancar con sus cabeceras, así
+ * la repetición después de un reinicio es igual a la original.
+ * @author GERSON
+ */
+
+@PruebaIntegracion
+class RegistroIdempotenciaServiceImplTest {
+    private static final String RUTA = "/api/ventas";
+    private static final byte[] HASH = new byte[32];
+
+    @Autowired
+    private RegistroIdempotenciaService registroService;
+    @Autowired
+    private IdempotenciaCache idempotenciaCache;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final String valor = "clave-" + UUID.randomUUID();
+
+    @AfterEach
+    void eliminarRegistro() {
+        this.jdbcTemplate.update("delete from registro_idempotencia where clave = ?", this.valor);
+    }
+
+    @Test
+    void precargaLasCabecerasRegistradas() {
+        HttpHeaders cabeceras = new HttpHeaders();
+        cabeceras.setLocation(URI.create(RUTA + "/7"));
+        cabeceras.add("X-Prueba", "a");
+        cabeceras.add("X-Prueba", "b: con dos puntos");
+        ClaveIdempotencia clave = new ClaveIdempotencia("ana", RUTA, this.valor);
+        // Sin el proxy: registrar es @Async y aquí se necesita terminado
+        RegistroIdempotenciaService servicio = AopTestUtils.getUltimateTargetObject(this.registroService);
+        this.transactionTemplate.executeWithoutResult(estado -> servicio.registrar(clave, new RespuestaIdempotente(
+                201, MediaType.APPLICATION_JSON_VALUE, cabeceras,
+                "{\"id\":7}".getBytes(StandardCharsets.UTF_8), HASH, LocalDateTime.now()
+        )));
+
+        this.registroService.precargarCache();
+        RespuestaIdempotente precargada = this.idempotenciaCache.reservar(clave, HASH);
+
+        assertThat(precargada).isNotNull();
+        assertThat(precargada.estado()).isEqualTo(201);
+        assertThat(precargada.cabeceras().getLocation()).hasToString(RUTA + "/7");
+        assertThat(precargada.cabeceras().get("X-Prueba")).containsExactly("a", "b: con dos puntos");
+        assertThat(new String(precargada.cuerpo(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":7}");
+    }
+
+    @Test
+    void registroSinCabecerasSePrecargaVacio() {
+        ClaveIdempotencia clave = new ClaveIdempotencia("ana", RUTA, this.valor);
+        RegistroIdempotenciaService servicio = AopTestUtils.getUltimateTargetObject(this.registroService);
+        this.transactionTemplate.executeWithoutResult(estado -> servicio.registrar(clave, new RespuestaIdempotente(
+                201, null, null, new byte[0], HASH, LocalDateTime.now()
+        )));
+
+        this.registroService.precargarCache();
+
+        assertThat(this.jdbcTemplate.queryForObject(
+                "select cabeceras from registro_idempotencia where clave = ?", String.class, this.valor
+        )).isNull();
+        assertThat(this.idempotenciaCache.reservar(clave, HASH).cabeceras()).isEmpty();
+    }
+}
@@ -0,0 +1,202 @@
+package com.boutique.service.impl;
+
+import com.boutique.DatosPrueba;
+import com.boutique.PruebaIntegracion;
+import com.boutique.entity.Cliente;
+import com.boutique.entity.PlanCredito;
+import com.boutique.entity.Sucursal;
+import com.boutique.entity.dto.CarteraCreditoDto;
+import com.boutique.entity.dto.CarteraCreditoResumenDto;
+import com.boutique.entity.dto.CobranzaSemanalDto;
+import com.boutique.entity.dto.PagoSimpleDto;
+import com.boutique.entity.enums.Frecuencia;
+import com.boutique.entity.enums.MetodoPago;
+import com.boutique.service.PagoService;
+import com.boutique.service.ReporteService;
+import com.boutique.service.VentaService;
+import jakarta.persistence.EntityManager;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+/**
+ * Cartera de créditos: los cuatro niveles de GROUPING SETS, la exclusión de las
+ * ventas canceladas y la cobranza agrupada por semana de vencimiento.
+ * @author GERSON
+ */
+
+@PruebaIntegracion
+@Transactional
+class ReporteServiceImplTest {
+    private static final int SEMANAS = 8;
+
+    @Autowired
+    private ReporteService reporteService;
+    @Autowired
+    private VentaService ventaService;
+    @Autowired
+    private PagoService pagoService;
+    @Autowired
+    private DatosPrueba datos;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void carteraPorNivelesYCobranzaSemanal() {
+        CarteraCreditoResumenDto totalAnterior = this.reporteService
+                .generarReporteCarteraCreditos(null, SEMANAS).getTotal();
+
+        Sucursal a = this.datos.sucursal();
+        Sucursal b = this.datos.sucursal();
+        Cliente cliente = this.datos.cliente();
+        // Sin interés: el monto del crédito es el total de la venta
+        PlanCredito semanal = this.datos.planCredito(Frecuencia.SEMANAL, 3, "0.00");
+        PlanCredito mensual = this.datos.planCredito(Frecuencia.MENSUAL, 3, "0.00");
+        Long ventaA = this.vender(a, cliente, semanal, "300.00");
+        this.vender(a, cliente, mensual, "600.00");
+        this.vender(b, cliente, semanal, "150.00");
+        this.ventaService.canelarVenta(this.vender(b, cliente, mensual, "900.00"));
+        this.pagarPrimeraCuota(ventaA, "100.00");
+        this.entityManager.flush();
+
+        CarteraCreditoDto cartera = this.reporteService.generarReporteCarteraCreditos(null, SEMANAS);
+
+        Long idA = a.getId();
+        Long idB = b.getId();
+        Short idSemanal = semanal.getId();
+        Short idMensual = mensual.getId();
+        // La venta cancelada de B con el plan mensual no aparece en ningún nivel
+        assertThat(cartera.getPorSucursalYPlan())
+                .filteredOn(fila -> Set.of(idA, idB).contains(fila.getIdSucursal()))
+                .extracting(ReporteServiceImplTest::fila)
+                .containsExactly(
+                        tuple(idA, idSemanal, 1L, "300.00", "200.00", "100.00", 1L, 2L),
+                        tuple(idA, idMensual, 1L, "600.00", "600.00", "0.00", 0L, 3L),
+                        tuple(idB, idSemanal, 1L, "150.00", "150.00", "0.00", 0L, 3L)
+                );
+        assertThat(cartera.getPorSucursal())
+                .filteredOn(fila -> Set.of(idA, idB).contains(fila.getIdSucursal()))
+                .extracting(ReporteServiceImplTest::fila)
+                .containsExactly(
+                        tuple(idA, null, 2L, "900.00", "800.00", "100.00", 1L, 5L),
+                        tuple(idB, null, 1L, "150.00", "150.00", "0.00", 0L, 3L)
+                );
+        assertThat(cartera.getPorPlan())
+                .filteredOn(fila -> Set.of(idSemanal, idMensual).contains(fila.getIdPlanCredito()))
+                .extracting(ReporteServiceImplTest::fila)
+                .containsExactly(
+                        tuple(null, idSemanal, 2L, "450.00", "350.00", "100.00", 1L, 5L),
+                        tuple(null, idMensual, 1L, "600.00", "600.00", "0.00", 0L, 3L)
+                );
+        assertThat(cartera.getPorSucursal()).extracting(CarteraCreditoResumenDto::getNombreSucursal)
+                .contains(a.getNombre(), b.getNombre());
+        assertThat(cartera.getPorPlan()).extracting(CarteraCreditoResumenDto::getNombrePlan)
+                .contains(semanal.getNombre(), mensual.getNombre());
+
+        CarteraCreditoResumenDto total = cartera.getTotal();
+        assertThat(total.getIdSucursal()).isNull();
+        assertThat(total.getIdPlanCredito()).isNull();
+        assertThat(total.getCreditos() - creditos(totalAnterior)).isEqualTo(3);
+        assertThat(total.getMontoTotal().subtract(monto(totalAnterior, CarteraCreditoResumenDto::getMontoTotal)))
+                .isEqualByComparingTo("1050.00");
+        assertThat(total.getSaldoPendiente().subtract(monto(totalAnterior, CarteraCreditoResumenDto::getSaldoPendiente)))
+                .isEqualByComparingTo("950.00");
+
+        // Primer vencimiento un mes después de la venta; las cuotas semanales siguen cada 7 días
+        LocalDate primera = LocalDate.now().plusMonths(1);
+        LocalDate semana1 = primera.with(DayOfWeek.MONDAY);
+        LocalDate semana2 = semana1.plusWeeks(1);
+        LocalDate semana3 = semana1.plusWeeks(2);
+        assertThat(cartera.getCobranzaSemanal())
+                .filteredOn(fila -> Set.of(idA, idB).contains(fila.getIdSucursal()))
+                .extracting(fila -> tuple(
+                        fila.getSemana(), fila.getIdSucursal(), fila.getCuotas(), fila.getMonto().toPlainString()
+                ))
+                .containsExactly(
+                        // La primera cuota semanal de A está pagada: sólo queda la mensual
+                        tuple(semana1, idA, 1L, "200.00"),
+                        tuple(semana1, idB, 1L, "50.00"),
+                        tuple(semana2, idA, 1L, "100.00"),
+                        tuple(semana2, idB, 1L, "50.00"),
+                        tuple(semana3, idA, 1L, "100.00"),
+                        tuple(semana3, idB, 1L, "50.00")
+                );
+    }
+
+    @Test
+    void reporteDeUnaSucursalSoloIncluyeSusCreditos() {
+        Sucursal a = this.datos.sucursal();
+        Sucursal b = this.datos.sucursal();
+        Cliente cliente = this.datos.cliente();
+        PlanCredito plan = this.datos.planCredito(Frecuencia.SEMANAL, 3, "0.00");
+        this.vender(a, cliente, plan, "300.00");
+        this.vender(b, cliente, plan, "150.00");
+        this.entityManager.flush();
+
+        CarteraCreditoDto cartera = this.reporteService.generarReporteCarteraCreditos(b.getId(), SEMANAS);
+
+        assertThat(cartera.getTotal().getCreditos()).isEqualTo(1);
+        assertThat(cartera.getTotal().getMontoTotal()).isEqualByComparingTo("150.00");
+        assertThat(cartera.getPorSucursal()).extracting(CarteraCreditoResumenDto::getIdSucursal)
+                .containsExactly(b.getId());
+        assertThat(cartera.getCobranzaSemanal()).extracting(CobranzaSemanalDto::getIdSucursal)
+                .containsOnly(b.getId())
+                .hasSize(3);
+    }
+
+    private Long vender(Sucursal sucursal, Cliente cliente, PlanCredito plan, String precio) {
+        return this.ventaService.crearVenta(DatosPrueba.venta(
+                sucursal, cliente, plan, DatosPrueba.lineas(this.datos.producto(sucursal, precio, 5), 1)
+        )).getId();
+    }
+
+    private void pagarPrimeraCuota(Long idVenta, String monto) {
+        Long idCuota = this.jdbcTemplate.queryForObject("""
+                select cu.id from cuota cu
+                join credito cr on cr.id = cu.credito_id
+                where cr.venta_id = ? and cu.numero = 1
+                """, Long.class, idVenta);
+        this.pagoService.crearPagoCuota(PagoSimpleDto.builder()
+                .fecha(LocalDate.now())
+                .hora(LocalTime.now())
+                .metodoPago(MetodoPago.EFECTIVO)
+                .monto(new BigDecimal(monto))
+                .idCuota(idCuota)
+                .build());
+    }
+
+    private static Tuple fila(CarteraCreditoResumenDto fila) {
+        return tuple(
+                fila.getIdSucursal(), fila.getIdPlanCredito(), fila.getCreditos(),
+                fila.getMontoTotal().toPlainString(), fila.getSaldoPendiente().toPlainString(),
+                fila.getMontoCobrado().toPlainString(), fila.getCuotasPagadas(), fila.getCuotasPendientes()
+        );
+    }
+
+    private static long creditos(CarteraCreditoResumenDto total) {
+        return total != null ? total.getCreditos() : 0;
+    }
+
+    private static BigDecimal monto(
+            CarteraCreditoResumenDto total, Function<CarteraCreditoResumenDto, BigDecimal> campo
+    ) {
+        // Sin créditos la fila del total existe, pero las sumas son nulas
+        BigDecimal monto = total != null ? campo.apply(total) : null;
+        return monto != null ? monto : BigDecimal.ZERO;
+    }
+}
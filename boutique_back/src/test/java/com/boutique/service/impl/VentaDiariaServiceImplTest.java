@@ -0,0 +1,129 @@
+package com.boutique.service.impl;
+
+import com.boutique.DatosPrueba;
+import com.boutique.PruebaIntegracion;
+import com.boutique.entity.Cliente;
+import com.boutique.entity.EventoDominio;
+import com.boutique.entity.Producto;
+import com.boutique.entity.Sucursal;
+import com.boutique.repository.EventoDominioRepository;
+import com.boutique.service.VentaDiariaService;
+import com.boutique.service.VentaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Un evento entregado más de una vez, por el listener y por el reenvío o junto a
+ * una reconstrucción del resumen, se aplica a venta_diaria_producto una sola vez.
+ * @author GERSON
+ */
+
+@PruebaIntegracion
+class VentaDiariaServiceImplTest {
+    @Autowired
+    private VentaService ventaService;
+    @Autowired
+    private VentaDiariaService ventaDiariaService;
+    @Autowired
+    private EventoDominioRepository eventoDominioRepository;
+    @Autowired
+    private DatosPrueba datos;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Sucursal sucursal;
+    private Cliente cliente;
+    private Long idVenta;
+
+    @BeforeEach
+    void crearVentaCancelada() throws InterruptedException {
+        Producto producto = this.transactionTemplate.execute(estado -> {
+            this.sucursal = this.datos.sucursal();
+            this.cliente = this.datos.cliente();
+            return this.datos.producto(this.sucursal, "40.00", 10);
+        });
+        this.idVenta = this.ventaService.crearVenta(DatosPrueba.venta(
+                this.sucursal, this.cliente, null, DatosPrueba.lineas(producto, 3)
+        )).getId();
+        this.ventaService.canelarVenta(this.idVenta);
+        this.esperarEventos();
+    }
+
+    @AfterEach
+    void eliminarDatos() throws InterruptedException {
+        this.datos.eliminar(this.sucursal.getId(), this.cliente.getId(), null);
+    }
+
+    @Test
+    void eventosRepetidosSeAplicanUnaVez() {
+        List<String> resumen = this.resumen();
+        assertThat(resumen).containsExactly("CANCELADA 3 120.00");
+
+        this.entregarDeNuevo();
+        this.entregarDeNuevo();
+
+        assertThat(this.resumen()).isEqualTo(resumen);
+    }
+
+    @Test
+    void reconstruirConEventosPendientesNoCuentaDosVeces() {
+        this.jdbcTemplate.update(
+                "update evento_dominio set fecha_procesado = null where venta_id = ?", this.idVenta
+        );
+
+        this.ventaDiariaService.reconstruirResumen();
+        this.entregarDeNuevo();
+
+        assertThat(this.resumen()).containsExactly("CANCELADA 3 120.00");
+    }
+
+    /**
+     * Entrega los eventos de la venta otra vez, como el reenvío periódico, pero en
+     * el hilo de la prueba para saber cuándo terminó.
+     */
+    private void entregarDeNuevo() {
+        VentaDiariaService servicio = AopTestUtils.getUltimateTargetObject(this.ventaDiariaService);
+        List<EventoDominio> eventos = this.eventoDominioRepository.findAll().stream()
+                .filter(evento -> evento.getIdVenta().equals(this.idVenta))
+                .toList();
+        assertThat(eventos).hasSize(2);
+        eventos.forEach(evento -> this.transactionTemplate.executeWithoutResult(
+                estado -> servicio.procesarEvento(evento)
+        ));
+    }
+
+    /**
+     * Filas del resumen de la sucursal con unidades, como "estado cantidad total".
+     */
+    private List<String> resumen() {
+        return this.jdbcTemplate.queryForList("""
+                select estado || ' ' || cantidad || ' ' || total from venta_diaria_producto
+                where sucursal_id = ? and cantidad <> 0
+                order by estado
+                """, String.class, this.sucursal.getId());
+    }
+
+    private void esperarEventos() throws InterruptedException {
+        for (int i = 0; i < 50 && this.pendientes() > 0; i++)
+            Thread.sleep(100);
+        assertThat(this.pendientes()).isZero();
+    }
+
+    private int pendientes() {
+        return this.jdbcTemplate.queryForObject(
+                "select count(*) from evento_dominio where venta_id = ? and fecha_procesado is null",
+                Integer.class, this.idVenta
+        );
+    }
+}
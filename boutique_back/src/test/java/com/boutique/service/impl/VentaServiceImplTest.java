@@ -0,0 +1,58 @@
+package com.boutique.service.impl;
+
+import com.boutique.DatosPrueba;
+import com.boutique.PruebaIntegracion;
+import com.boutique.entity.Cliente;
+import com.boutique.entity.PlanCredito;
+import com.boutique.entity.Sucursal;
+import com.boutique.entity.dto.VentaDetalleDto;
+import com.boutique.entity.enums.Frecuencia;
+import com.boutique.service.VentaService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * El detalle de una venta a crédito se arma con una consulta para la venta y
+ * sus relaciones y otra para las cuotas, sin importar cuántas líneas tenga.
+ * @author GERSON
+ */
+
+@PruebaIntegracion
+@Transactional
+class VentaServiceImplTest {
+    @Autowired
+    private VentaService ventaService;
+    @Autowired
+    private DatosPrueba datos;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void detalleDeVentaACreditoUsaDosSentencias() {
+        Sucursal sucursal = this.datos.sucursal();
+        Cliente cliente = this.datos.cliente();
+        PlanCredito plan = this.datos.planCredito(Frecuencia.QUINCENAL, 6, "12.00");
+        Long idVenta = this.ventaService.crearVenta(DatosPrueba.venta(sucursal, cliente, plan, DatosPrueba.lineas(
+                this.datos.producto(sucursal, "50.00", 10), 2,
+                this.datos.producto(sucursal, "80.00", 10), 1,
+                this.datos.producto(sucursal, "120.00", 10), 3
+        ))).getId();
+        this.entityManager.flush();
+        this.entityManager.clear();
+        Statistics estadisticas = this.datos.estadisticas();
+
+        VentaDetalleDto detalle = this.ventaService.obtenerDetalleVentaPorId(idVenta);
+
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(detalle.getDetalles()).hasSize(3);
+        assertThat(detalle.getClienteNombre()).isEqualTo("Cliente Prueba");
+        assertThat(detalle.getSucursalNombre()).isEqualTo(sucursal.getNombre());
+        assertThat(detalle.getCredito().getCuotas()).hasSize(6);
+        assertThat(detalle.getCredito().getPlanCredito().getId()).isEqualTo(plan.getId());
+    }
+}